@@ -1,12 +1,32 @@
+package br.com.alcidesbezerra.bff.generica;
 
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
-
+import br.com.alcidesbezerra.bff.generica.security.domain.Message;
+import br.com.alcidesbezerra.bff.generica.security.exception.AbstractErrorException;
+import br.com.alcidesbezerra.bff.generica.security.exception.ServerErrorException;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.AllArgsConstructor;
 /**
  * Esta classe é uma abstração para realizar chamadas a serviços soap de forma mais simples. A ideia é que essa classe
@@ -20,6 +40,10 @@ import lombok.AllArgsConstructor;
  */
 public abstract class AbstractInvoker<STUBIN, STUBOUT, HEADER> {
 
+    private volatile InvokerGuard guard;
+    private volatile InvokerCoalescer<STUBOUT> coalescer;
+    private volatile InvokerMetrics metrics;
+
     /**
      * Método para setar e preparar o request para a operação do WebService.
      *
@@ -45,7 +69,194 @@ public abstract class AbstractInvoker<STUBIN, STUBOUT, HEADER> {
      * HEADER)}
      */
     public AbstractInvokerResponseHandler<STUBOUT> run(final STUBIN stubin) {
-        return new AbstractInvokerResponseHandler<>(execute(stubin, empty()));
+        return respond(stubin, empty());
+    }
+
+    /**
+     * Faz a chamada assíncrona para a operação do WebService, no executor indicado em {@code executor()} e com o timeout
+     * indicado em {@code timeout()}.
+     */
+    public CompletableFuture<STUBOUT> runAsync(final STUBIN stubin) {
+        return executeAsync(stubin, empty(), timeout());
+    }
+
+    /**
+     * Faz a chamada da operação para cada um dos requests, com no máximo {@code fanOutConcurrency()} chamadas
+     * simultâneas.
+     *
+     * @param requests Requests de domínio da aplicação
+     * @param mapper Função para mapear cada request para o STUB de request da operação
+     * @return Resultados na mesma ordem dos requests
+     */
+    public <REQUEST> List<InvokerResult<STUBOUT>> invokeAll(final Collection<REQUEST> requests,
+        final Function<REQUEST, STUBIN> mapper) {
+        return executeAll(requests, mapper, empty(), fanOutConcurrency());
+    }
+
+    /**
+     * Faz a chamada da operação para cada um dos requests, com no máximo {@code maxConcurrency} chamadas simultâneas.
+     * A falha de um request é tratada pelo {@code handleException()} e registrada no seu resultado, sem interromper os
+     * demais.
+     *
+     * @param requests Requests de domínio da aplicação
+     * @param mapper Função para mapear cada request para o STUB de request da operação
+     * @param maxConcurrency Quantidade máxima de chamadas simultâneas
+     * @return Resultados na mesma ordem dos requests
+     */
+    public <REQUEST> List<InvokerResult<STUBOUT>> invokeAll(final Collection<REQUEST> requests,
+        final Function<REQUEST, STUBIN> mapper, final int maxConcurrency) {
+        return executeAll(requests, mapper, empty(), maxConcurrency);
+    }
+
+    /**
+     * Quantidade padrão de chamadas simultâneas do {@code invokeAll()}. Deve ser menor que o {@code
+     * maxConcurrentCalls()} para que o lote não ocupe todo o bulkhead do invoker.
+     */
+    protected int fanOutConcurrency() {
+        return 10;
+    }
+
+    /**
+     * Executor usado nas chamadas assíncronas. Por padrão é o {@link InvokerExecutors#defaultExecutor()}, que usa virtual
+     * threads quando disponíveis.
+     */
+    protected Executor executor() {
+        return InvokerExecutors.defaultExecutor();
+    }
+
+    /**
+     * Timeout padrão das chamadas assíncronas da operação. Por padrão é {@code null}, ou seja, sem timeout.
+     */
+    protected Duration timeout() {
+        return null;
+    }
+
+    /**
+     * Quantidade máxima de chamadas simultâneas à operação (bulkhead). Chamadas acima do limite são rejeitadas com
+     * {@link Message#SERVICO_INDISPONIVEL}.
+     */
+    protected int maxConcurrentCalls() {
+        return 20;
+    }
+
+    /**
+     * Tempo máximo que uma chamada espera por uma vaga no bulkhead. Por padrão é zero, ou seja, rejeita imediatamente.
+     */
+    protected Duration maxWaitForCall() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * Quantidade de falhas consecutivas do WebService que abre o circuito.
+     */
+    protected int circuitBreakerFailureThreshold() {
+        return 5;
+    }
+
+    /**
+     * Tempo que o circuito permanece aberto antes de liberar uma chamada de teste.
+     */
+    protected Duration circuitBreakerOpenDuration() {
+        return Duration.ofSeconds(30);
+    }
+
+    /**
+     * Indica se a exception tratada pelo {@code handleException()} representa uma falha do WebService, que deve contar
+     * para a abertura do circuito. Por padrão, apenas erros de negócio/validação (4xx) não contam.
+     *
+     * @param e Exception retornada pelo {@code handleException()}
+     */
+    protected boolean isBackendFailure(final RuntimeException e) {
+        return !(e instanceof AbstractErrorException)
+            || ((AbstractErrorException) e).getErrorType().getHttpStatus().is5xxServerError();
+    }
+
+    /**
+     * Indica se a operação é idempotente (somente leitura). Quando {@code true}, chamadas simultâneas com o mesmo
+     * {@code fingerprint()} compartilham uma única chamada ao WebService e, se {@code responseCacheTtl()} for
+     * informado, os responses são mantidos em cache. Nesse caso, o mesmo STUB de response é entregue a vários
+     * chamadores e não deve ser alterado. Por padrão é {@code false}.
+     */
+    protected boolean idempotent() {
+        return false;
+    }
+
+    /**
+     * Identificação de uma chamada para agrupamento e cache. Por padrão usa o {@code equals()/hashCode()} do STUB e do
+     * header; como STUBs gerados pelo JAXB normalmente não os implementam, subclasses idempotentes devem sobrescrever
+     * este método com os campos relevantes do request.
+     *
+     * @param stubin STUB de request da operação
+     * @param header Header da operação
+     */
+    protected Object fingerprint(final STUBIN stubin, final Optional<HEADER> header) {
+        return Arrays.asList(stubin, header.orElse(null));
+    }
+
+    /**
+     * Tempo de vida dos responses em cache das operações idempotentes. Por padrão é {@code null}, ou seja, apenas as
+     * chamadas simultâneas são agrupadas e nada é mantido em cache.
+     */
+    protected Duration responseCacheTtl() {
+        return null;
+    }
+
+    /**
+     * Quantidade máxima de responses mantidos em cache.
+     */
+    protected long responseCacheMaximumSize() {
+        return 1_000;
+    }
+
+    /**
+     * Indica se chamadas lentas de uma operação idempotente devem ser duplicadas (hedge): se o response não chegar em
+     * {@code hedgeDelay()}, uma segunda chamada é feita e vale o primeiro sucesso. Só tem efeito se {@code
+     * idempotent()} também for {@code true}. Por padrão é {@code false}.
+     */
+    protected boolean hedged() {
+        return false;
+    }
+
+    /**
+     * Tempo de espera antes de disparar o hedge. Por padrão é {@code null}, ou seja, usa o percentil 95 das latências
+     * recentes da operação; enquanto não houver amostras suficientes, o hedge não é feito.
+     */
+    protected Duration hedgeDelay() {
+        return null;
+    }
+
+    /**
+     * Quantidade máxima de retentativas após uma falha do WebService (ver {@code isBackendFailure()}). As
+     * retentativas consomem o {@link RetryBudget#global()} e só devem ser habilitadas para operações que possam ser
+     * repetidas com segurança. Por padrão é zero.
+     */
+    protected int maxRetries() {
+        return 0;
+    }
+
+    /**
+     * Espera base entre retentativas. A espera dobra a cada retentativa, com variação aleatória (jitter) para que as
+     * chamadas não se sincronizem.
+     */
+    protected Duration retryBackoff() {
+        return Duration.ofMillis(100);
+    }
+
+    /**
+     * Nome da operação usado na tag {@code operation} das métricas do invoker. Por padrão é o nome simples da classe do
+     * STUB de request, que identifica a operação do WebService.
+     *
+     * @param stubin STUB de request da operação
+     */
+    protected String operationName(final STUBIN stubin) {
+        return stubin == null ? invokerName() : stubin.getClass().getSimpleName();
+    }
+
+    /**
+     * Lança a exception indicando que o serviço está indisponível (circuito aberto ou bulkhead cheio).
+     */
+    protected RuntimeException servicoIndisponivel() {
+        return new ServerErrorException(Message.SERVICO_INDISPONIVEL.name().replace("_", " "));
     }
 
     /**
@@ -59,17 +270,375 @@ public abstract class AbstractInvoker<STUBIN, STUBOUT, HEADER> {
 
     /**
      * Faz o encapsulamento da chamada ao método {@code invoke} captudando qualquer exception e chamando o método {@code
-     * handleException()} para fazer o seu tratamento.
+     * handleException()} para fazer o seu tratamento. O tempo, as chamadas em andamento e os erros são registrados
+     * nas métricas da operação (ver {@link InvokerMetrics}). O resultado de uma chamada abandonada não é registrado
+     * aqui, só deixa de contar como em andamento: o timeout é registrado pela chamada assíncrona.
      *
      * @param stubin Classe de stub da operação
      * @param header Header indicado no método {@code header(HEADER)}. Caso não tenha sido indicado, será empty()
      * @return STUB de response da operação
      */
     private STUBOUT execute(final STUBIN stubin, final Optional<HEADER> header) {
+        final InvokerMetrics.Operation operation = operation(stubin);
+        final long start = operation.start();
+        final STUBOUT stubout;
         try {
-            return invoke(stubin, header);
-        } catch (final Exception e) {
+            stubout = idempotent()
+                ? coalescer().execute(fingerprint(stubin, header), () -> executeWithRetries(stubin, header))
+                : executeWithRetries(stubin, header);
+        } catch (final Rejection e) {
+            failed(operation, start, e.handled);
+            throw e.handled;
+        } catch (final RuntimeException | Error e) {
+            failed(operation, start, e);
+            throw e;
+        }
+        if (InvokerTask.isCurrentAbandoned()) {
+            operation.abandoned();
+        } else {
+            operation.success(start);
+        }
+        return stubout;
+    }
+
+    private static void failed(final InvokerMetrics.Operation operation, final long start, final Throwable e) {
+        if (InvokerTask.isCurrentAbandoned()) {
+            operation.abandoned();
+        } else {
+            operation.failure(start, e);
+        }
+    }
+
+    private AbstractInvokerResponseHandler<STUBOUT> respond(final STUBIN stubin, final Optional<HEADER> header) {
+        return new AbstractInvokerResponseHandler<>(execute(stubin, header), operation(stubin).getResponseMapper());
+    }
+
+    /**
+     * Faz a chamada e, em caso de falha do WebService, as retentativas permitidas pelo {@code maxRetries()} e pelo
+     * orçamento global de retentativas. A exception da última tentativa é a que é lançada. Uma chamada rejeitada pelo
+     * bulkhead ou pelo circuit breaker não é repetida.
+     */
+    private STUBOUT executeWithRetries(final STUBIN stubin, final Optional<HEADER> header) {
+        final int maxRetries = maxRetries();
+        if (maxRetries <= 0) {
+            return attempt(stubin, header);
+        }
+
+        final RetryBudget budget = RetryBudget.global();
+        budget.deposit();
+        for (int retry = 0;; retry++) {
+            try {
+                return attempt(stubin, header);
+            } catch (final Rejection e) {
+                throw e;
+            } catch (final RuntimeException e) {
+                if (retry >= maxRetries || !isBackendFailure(e) || guard().getState() == InvokerGuard.State.OPEN
+                    || InvokerTask.isCurrentAbandoned()) {
+                    throw e;
+                }
+
+                final boolean allowed = budget.tryWithdraw();
+                guard().recordRetry(allowed);
+                if (!allowed || !backoff(retry)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Aguarda antes da retentativa, com backoff exponencial e jitter.
+     *
+     * @return {@code false} se a thread foi interrompida durante a espera
+     */
+    private boolean backoff(final int retry) {
+        final long ceiling = retryBackoff().toNanos() << Math.min(retry, 10);
+        final long half = ceiling / 2;
+        try {
+            TimeUnit.NANOSECONDS.sleep(half + ThreadLocalRandom.current().nextLong(half + 1));
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private STUBOUT attempt(final STUBIN stubin, final Optional<HEADER> header) {
+        return hedged() && idempotent() ? hedgedExecute(stubin, header) : guardedExecute(stubin, header);
+    }
+
+    /**
+     * Faz a chamada no executor do invoker e, se ela não responder dentro do atraso do hedge, dispara uma segunda
+     * chamada idêntica. Retorna o primeiro sucesso; se as duas falharem, lança a exception da última. Se a primeira
+     * chamada for rejeitada pelo bulkhead ou pelo circuit breaker, o hedge não é disparado. A chamada que
+     * perder é abandonada (ver {@link InvokerTask}): a sua thread é interrompida e o seu resultado não é registrado no
+     * circuit breaker nem nas latências. Se o executor rejeitar a primeira chamada, ela é feita na thread atual; se
+     * rejeitar o hedge, vale apenas a primeira.
+     */
+    private STUBOUT hedgedExecute(final STUBIN stubin, final Optional<HEADER> header) {
+        final InvokerGuard guard = guard();
+        final Duration delay = hedgeDelay();
+        final long delayNanos = delay != null ? delay.toNanos() : guard.getLatencies().p95Nanos();
+        if (delayNanos < 0) {
+            return guardedExecute(stubin, header);
+        }
+
+        final InvokerTask<STUBOUT> primary;
+        try {
+            primary = InvokerTask.submit(() -> guardedExecute(stubin, header), executor());
+        } catch (final RejectedExecutionException e) {
+            return guardedExecute(stubin, header);
+        }
+        InvokerTask<STUBOUT> hedge = null;
+        try {
+            try {
+                return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+            } catch (final TimeoutException e) {
+                try {
+                    hedge = InvokerTask.submit(() -> guardedExecute(stubin, header), executor());
+                } catch (final RejectedExecutionException rejected) {
+                    return primary.get();
+                }
+                guard.recordHedge();
+                return firstSuccess(primary, hedge).get();
+            }
+        } catch (final ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw handleException(e);
+        } finally {
+            primary.abandon();
+            if (hedge != null) {
+                hedge.abandon();
+            }
+        }
+    }
+
+    private static <T> CompletableFuture<T> firstSuccess(final CompletableFuture<T> first,
+        final CompletableFuture<T> second) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger failures = new AtomicInteger();
+        first.whenComplete((value, error) -> completeFirst(result, failures, value, error));
+        second.whenComplete((value, error) -> completeFirst(result, failures, value, error));
+        return result;
+    }
+
+    private static <T> void completeFirst(final CompletableFuture<T> result, final AtomicInteger failures,
+        final T value, final Throwable error) {
+        if (error == null) {
+            result.complete(value);
+        } else if (failures.incrementAndGet() == 2) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * As exceptions que chegam aqui já passaram pelo {@code handleException()}; apenas remove o encapsulamento do
+     * {@link CompletableFuture}.
+     */
+    private RuntimeException unwrap(final Throwable cause) {
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            return unwrap(cause.getCause());
+        }
+        return cause instanceof RuntimeException ? (RuntimeException) cause : handleException(new Exception(cause));
+    }
+
+    /**
+     * Faz a chamada ao {@code invoke} passando pelo bulkhead e pelo circuit breaker do invoker. O resultado de uma
+     * chamada abandonada (ver {@link InvokerTask}) não é registrado no circuit breaker nem nas latências. A rejeição
+     * pelo bulkhead ou pelo circuit breaker é lançada como {@link Rejection}.
+     */
+    private STUBOUT guardedExecute(final STUBIN stubin, final Optional<HEADER> header) {
+        final InvokerGuard guard = guard();
+        if (!guard.tryAcquire()) {
+            throw new Rejection(handleException(servicoIndisponivel()));
+        }
+
+        boolean backendFailure = false;
+        final long start = System.nanoTime();
+        try {
+            final STUBOUT stubout = invoke(stubin, header);
+            if (!InvokerTask.isCurrentAbandoned()) {
+                guard.getLatencies().record(System.nanoTime() - start);
+            }
+            return stubout;
+        } catch (final Exception e) {
+            final RuntimeException handled = handleException(e);
+            backendFailure = isBackendFailure(handled);
+            throw handled;
+        } finally {
+            operation(stubin).getInvoke().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (InvokerTask.isCurrentAbandoned()) {
+                guard.releaseAbandoned();
+            } else {
+                guard.release(backendFailure);
+            }
+        }
+    }
+
+    /**
+     * Cria, na primeira chamada, o bulkhead e o circuit breaker do invoker com as configurações da subclasse.
+     */
+    private InvokerGuard guard() {
+        InvokerGuard current = guard;
+        if (current == null) {
+            synchronized (this) {
+                current = guard;
+                if (current == null) {
+                    current = new InvokerGuard(invokerName(), maxConcurrentCalls(), maxWaitForCall(),
+                        circuitBreakerFailureThreshold(), circuitBreakerOpenDuration(), Metrics.globalRegistry);
+                    guard = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Cria, na primeira chamada, o agrupador de chamadas e o cache de responses das operações idempotentes.
+     */
+    private InvokerCoalescer<STUBOUT> coalescer() {
+        InvokerCoalescer<STUBOUT> current = coalescer;
+        if (current == null) {
+            synchronized (this) {
+                current = coalescer;
+                if (current == null) {
+                    current = new InvokerCoalescer<>(invokerName(), responseCacheTtl(), responseCacheMaximumSize(),
+                        Metrics.globalRegistry, this::handleException);
+                    coalescer = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Métricas da operação, criadas na primeira chamada.
+     */
+    private InvokerMetrics.Operation operation(final STUBIN stubin) {
+        InvokerMetrics current = metrics;
+        if (current == null) {
+            synchronized (this) {
+                current = metrics;
+                if (current == null) {
+                    current = new InvokerMetrics(invokerName(), Metrics.globalRegistry);
+                    metrics = current;
+                }
+            }
+        }
+        return current.operation(operationName(stubin));
+    }
+
+    private String invokerName() {
+        final String simpleName = getClass().getSimpleName();
+        return simpleName.isEmpty() ? getClass().getName() : simpleName;
+    }
+
+    /**
+     * Executa o {@code execute(STUBIN, HEADER)} no executor do invoker. Caso o timeout seja atingido, a {@link
+     * TimeoutException} também passa pelo {@code handleException()} e a chamada é abandonada (ver {@link
+     * InvokerTask}): se ainda não começou, não é feita; se estiver em andamento, a thread é interrompida e o seu
+     * resultado não é registrado no circuit breaker nem nas métricas da operação, onde conta apenas o timeout. O mesmo
+     * acontece se o future retornado for cancelado. Se o executor rejeitar a chamada, o future falha com o {@code
+     * servicoIndisponivel()}.
+     *
+     * @param stubin Classe de stub da operação
+     * @param header Header indicado no método {@code header(HEADER)}. Caso não tenha sido indicado, será empty()
+     * @param timeout Tempo máximo de espera pelo response. Se {@code null}, não há timeout
+     * @return Future com o STUB de response da operação
+     */
+    private CompletableFuture<STUBOUT> executeAsync(final STUBIN stubin, final Optional<HEADER> header,
+        final Duration timeout) {
+        final InvokerTask<STUBOUT> task;
+        try {
+            task = InvokerTask.submit(() -> execute(stubin, header), executor());
+        } catch (final RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(handleException(servicoIndisponivel()));
+        }
+        if (timeout == null) {
+            return task;
+        }
+
+        final long submitted = System.nanoTime();
+        final CompletableFuture<STUBOUT> future = task
+            .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+            .exceptionally(e -> {
+                final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof TimeoutException) {
+                    task.abandon();
+                    final RuntimeException handled = handleException((TimeoutException) cause);
+                    operation(stubin).timeout(submitted, handled);
+                    throw handled;
+                }
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+            });
+        future.whenComplete((stubout, e) -> {
+            if (future.isCancelled()) {
+                task.abandon();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Faz as chamadas de um lote no executor do invoker. São iniciados até {@code maxConcurrency} workers, e cada um
+     * pega o próximo request ainda não processado até que o lote termine. Se o executor rejeitar um worker, o lote
+     * segue com os que já foram iniciados ou, se nenhum foi, na thread atual.
+     */
+    private <REQUEST> List<InvokerResult<STUBOUT>> executeAll(final Collection<REQUEST> requests,
+        final Function<REQUEST, STUBIN> mapper, final Optional<HEADER> header, final int maxConcurrency) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<REQUEST> input = new ArrayList<>(requests);
+        final Object[] results = new Object[input.size()];
+        final AtomicInteger next = new AtomicInteger();
+        final Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < results.length; i = next.getAndIncrement()) {
+                results[i] = executeOne(input.get(i), mapper, header);
+            }
+        };
+
+        final int workers = Math.max(1, Math.min(maxConcurrency, results.length));
+        final List<CompletableFuture<?>> running = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            try {
+                running.add(CompletableFuture.runAsync(worker, executor()));
+            } catch (final RejectedExecutionException e) {
+                break;
+            }
+        }
+        if (running.isEmpty()) {
+            worker.run();
+        }
+        CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0])).join();
+
+        final List<InvokerResult<STUBOUT>> ordered = new ArrayList<>(results.length);
+        for (final Object result : results) {
+            @SuppressWarnings("unchecked")
+            final InvokerResult<STUBOUT> typed = (InvokerResult<STUBOUT>) result;
+            ordered.add(typed);
+        }
+        return ordered;
+    }
+
+    private <REQUEST> InvokerResult<STUBOUT> executeOne(final REQUEST request, final Function<REQUEST, STUBIN> mapper,
+        final Optional<HEADER> header) {
+        final STUBIN stubin;
+        final long start = System.nanoTime();
+        try {
+            stubin = mapper.apply(request);
+        } catch (final Exception e) {
+            return InvokerResult.failure(handleException(e));
+        }
+        operation(stubin).getRequestMapper().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        try {
+            return InvokerResult.success(execute(stubin, header));
+        } catch (final RuntimeException e) {
+            return InvokerResult.failure(e);
         }
     }
 
@@ -89,13 +658,18 @@ public abstract class AbstractInvoker<STUBIN, STUBOUT, HEADER> {
     public abstract RuntimeException handleException(final Exception e);
 
     /**
-     * Classe criada ao iniciar o fluxo com um Header.
+     * Classe criada ao iniciar o fluxo com um Header. O {@code Optional} do header é criado uma única vez e reaproveitado
+     * pelos demais passos do fluxo.
      */
-    @AllArgsConstructor
     public static final class AbstractInvokerHeaderHandler<STUBIN, STUBOUT, HEADER> {
 
         private final AbstractInvoker<STUBIN, STUBOUT, HEADER> invoker;
-        private final HEADER header;
+        private final Optional<HEADER> header;
+
+        public AbstractInvokerHeaderHandler(final AbstractInvoker<STUBIN, STUBOUT, HEADER> invoker, final HEADER header) {
+            this.invoker = invoker;
+            this.header = of(header);
+        }
 
         /**
          * Seta o request (classe de domínio da aplicação) que deverá ser usado para chamar a operação do WebService.
@@ -105,7 +679,7 @@ public abstract class AbstractInvoker<STUBIN, STUBOUT, HEADER> {
          */
         public <REQUEST> AbstractInvokerPrepareHandler<STUBIN, STUBOUT, HEADER, REQUEST> prepare(
             final REQUEST request) {
-            return new AbstractInvokerPrepareHandler<>(invoker, request, of(header));
+            return new AbstractInvokerPrepareHandler<>(invoker, request, header);
         }
 
         /**
@@ -116,7 +690,31 @@ public abstract class AbstractInvoker<STUBIN, STUBOUT, HEADER> {
          * @return Classe que encapsula o STUB de response.
          */
         public AbstractInvokerResponseHandler<STUBOUT> run(final STUBIN stub) {
-            return new AbstractInvokerResponseHandler<>(invoker.execute(stub, of(header)));
+            return invoker.respond(stub, header);
+        }
+
+        /**
+         * Faz a chamada assíncrona ao invoker da operação passando o {@code STUBIN} passado por parâmetro e o header
+         * indicado no método anterior.
+         *
+         * @param stub STUB de request da operação.
+         * @return Future com o STUB de response.
+         */
+        public CompletableFuture<STUBOUT> runAsync(final STUBIN stub) {
+            return invoker.executeAsync(stub, header, invoker.timeout());
+        }
+
+        /**
+         * Faz a chamada da operação para cada um dos requests, usando o header indicado no método anterior.
+         *
+         * @param requests Requests de domínio da aplicação
+         * @param mapper Função para mapear cada request para o STUB de request da operação
+         * @param maxConcurrency Quantidade máxima de chamadas simultâneas
+         * @return Resultados na mesma ordem dos requests
+         */
+        public <REQUEST> List<InvokerResult<STUBOUT>> invokeAll(final Collection<REQUEST> requests,
+            final Function<REQUEST, STUBIN> mapper, final int maxConcurrency) {
+            return invoker.executeAll(requests, mapper, header, maxConcurrency);
         }
     }
 
@@ -136,13 +734,17 @@ public abstract class AbstractInvoker<STUBIN, STUBOUT, HEADER> {
         private final Optional<HEADER> header;
 
         /**
-         * Responsável por fazer o map do REQUEST para o STUB de request da operação.
+         * Responsável por fazer o map do REQUEST para o STUB de request da operação. O tempo do mapper é registrado na
+         * métrica {@code invoker.mapper} da operação.
          *
          * @param mapper Função para aplicar o mapper
          * @return Classe que encapsula o request para o WebService
          */
         public AbstractInvokerCallHandler<STUBIN, STUBOUT, HEADER> map(final Function<REQUEST, STUBIN> mapper) {
-            return new AbstractInvokerCallHandler<>(invoker, mapper.apply(request), header);
+            final long start = System.nanoTime();
+            final STUBIN stubin = mapper.apply(request);
+            invoker.operation(stubin).getRequestMapper().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return new AbstractInvokerCallHandler<>(invoker, stubin, header);
         }
     }
 
@@ -161,21 +763,31 @@ public abstract class AbstractInvoker<STUBIN, STUBOUT, HEADER> {
         private final Optional<HEADER> header;
 
         /**
-         * Faz a chamada para a operação do WebService e obtém o seu response
+         * Faz a chamada para a operação do WebServive e obtém o retorno da operação.
          *
-         * @return STUB de response da operação do WebService
+         * @return Classe que encapsula o STUB de retorno da operação
          */
-        private STUBOUT get() {
-            return invoker.execute(stubin, header);
+        public AbstractInvokerResponseHandler<STUBOUT> run() {
+            return invoker.respond(stubin, header);
         }
 
         /**
-         * Faz a chamada para a operação do WebServive (chamando o {@code get()}) e obtém o retorno da operação.
+         * Faz a chamada assíncrona para a operação do WebService, com o timeout padrão do invoker.
          *
-         * @return Classe que encapsula o STUB de retorno da operação
+         * @return Future com o STUB de retorno da operação
          */
-        public AbstractInvokerResponseHandler<STUBOUT> run() {
-            return new AbstractInvokerResponseHandler<>(get());
+        public CompletableFuture<STUBOUT> runAsync() {
+            return invoker.executeAsync(stubin, header, invoker.timeout());
+        }
+
+        /**
+         * Faz a chamada assíncrona para a operação do WebService com um timeout específico para esta chamada.
+         *
+         * @param timeout Tempo máximo de espera pelo response da operação
+         * @return Future com o STUB de retorno da operação
+         */
+        public CompletableFuture<STUBOUT> runAsync(final Duration timeout) {
+            return invoker.executeAsync(stubin, header, timeout);
         }
     }
 
@@ -184,10 +796,19 @@ public abstract class AbstractInvoker<STUBIN, STUBOUT, HEADER> {
      *
      * @param <STUBOUT> STUB de response da operação do WebService
      */
-    @AllArgsConstructor
     public static final class AbstractInvokerResponseHandler<STUBOUT> {
 
         private final STUBOUT stubout;
+        private final Timer mapperTimer;
+
+        public AbstractInvokerResponseHandler(final STUBOUT stubout) {
+            this(stubout, null);
+        }
+
+        private AbstractInvokerResponseHandler(final STUBOUT stubout, final Timer mapperTimer) {
+            this.stubout = stubout;
+            this.mapperTimer = mapperTimer;
+        }
 
         /**
          * Retorna o STUB de response da operação
@@ -197,13 +818,71 @@ public abstract class AbstractInvoker<STUBIN, STUBOUT, HEADER> {
         }
 
         /**
-         * Obtém o response da operação fazendo o mapper para um objeto de domínio da aplicação
+         * Obtém o response da operação fazendo o mapper para um objeto de domínio da aplicação. O mapper é aplicado
+         * apenas na primeira chamada ao {@code get()} do {@link Supplier}; as chamadas seguintes retornam o mesmo
+         * resultado.
          *
          * @param mapper Função para mapear o STUB de reponse para uma classe de domínio da aplicação.
          * @return Resultado da função {@param mapper}
          */
         public <RESPONSE> Supplier<RESPONSE> map(final Function<STUBOUT, RESPONSE> mapper) {
-            return () -> mapper.apply(stubout);
+            return new MemoizedResponse<>(stubout, mapper, mapperTimer);
+        }
+    }
+
+    /**
+     * {@link Supplier} que aplica o mapper do response uma única vez. Após o mapeamento, as referências ao STUB e ao
+     * mapper são liberadas. O tempo do mapper é registrado no timer informado, se houver.
+     */
+    private static final class MemoizedResponse<STUBOUT, RESPONSE> implements Supplier<RESPONSE> {
+
+        private STUBOUT stubout;
+        private Function<STUBOUT, RESPONSE> mapper;
+        private Timer timer;
+        private RESPONSE response;
+        private volatile boolean mapped;
+
+        private MemoizedResponse(final STUBOUT stubout, final Function<STUBOUT, RESPONSE> mapper, final Timer timer) {
+            this.stubout = stubout;
+            this.mapper = mapper;
+            this.timer = timer;
+        }
+
+        @Override
+        public RESPONSE get() {
+            if (!mapped) {
+                synchronized (this) {
+                    if (!mapped) {
+                        final long start = System.nanoTime();
+                        response = mapper.apply(stubout);
+                        if (timer != null) {
+                            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                        stubout = null;
+                        mapper = null;
+                        timer = null;
+                        mapped = true;
+                    }
+                }
+            }
+            return response;
+        }
+    }
+
+    /**
+     * Rejeição de uma chamada pelo bulkhead ou pelo circuit breaker, que não deve ser repetida nem duplicada pelo
+     * hedge. Só circula dentro do invoker: o {@code execute(STUBIN, HEADER)} lança a exception tratada pelo {@code
+     * handleException()}.
+     */
+    private static final class Rejection extends RuntimeException {
+
+        private static final long serialVersionUID = -3417920538761042915L;
+
+        private final RuntimeException handled;
+
+        private Rejection(final RuntimeException handled) {
+            super(handled.getMessage(), handled, false, false);
+            this.handled = handled;
         }
     }
 }
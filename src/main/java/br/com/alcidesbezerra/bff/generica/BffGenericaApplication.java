@@ -2,8 +2,13 @@ package br.com.alcidesbezerra.bff.generica;
 
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
 
+import br.com.alcidesbezerra.bff.generica.batch.BatchOptions;
+import br.com.alcidesbezerra.bff.generica.batch.CsvBatchProcessor;
 import br.com.alcidesbezerra.bff.generica.security.domain.Cpf;
 import lombok.extern.slf4j.Slf4j;
 
@@ -11,8 +16,24 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class BffGenericaApplication implements CommandLineRunner {
 
+	private final ApplicationContext context;
+	private final Environment environment;
+
+	public BffGenericaApplication(final ApplicationContext context, final Environment environment) {
+		this.context = context;
+		this.environment = environment;
+	}
+
+	/**
+	 * No modo batch ({@code --batch.operation}, ver {@link BatchOptions}), a aplicação sobe sem servidor web e
+	 * termina ao fim do processamento.
+	 */
 	public static void main(String[] args) {
-		SpringApplication.run(BffGenericaApplication.class, args);
+		final SpringApplication application = new SpringApplication(BffGenericaApplication.class);
+		if (BatchOptions.isRequested(args)) {
+			application.setWebApplicationType(WebApplicationType.NONE);
+		}
+		application.run(args);
 	}
 
 	/**
@@ -20,6 +41,12 @@ public class BffGenericaApplication implements CommandLineRunner {
 	 */
 	@Override
 	public void run(final String... args) throws Exception {
+		final BatchOptions batch = BatchOptions.from(environment);
+		if (batch != null) {
+			new CsvBatchProcessor(batch).run();
+			System.exit(SpringApplication.exit(context, () -> 0));
+		}
+
 		Cpf cpf = new Cpf("01118438396", false);
 		String cpfCriptografado = "CZuCg97B5ZDwlXDkHp8DDCCQMYQVvLHEHuilKQxsC3g1U0pfyCurplkeprTAL9bPbalu/Zm9qpxBdqFPxPfLryuLzcgkXNOQJORjxwyh8Db2Qwmnpd+ADG8CwFwnFvmOjlFIpNLlGrBX761/dDvuS5kF1T9mV7fwPpqQq3r/IoXFEAsfWe4wZ/wsrs0xUlukgTBH9sslcwllcqKF8bUy/oPXMlxKe2K/HqcJQu9W9a6HxXiZBLglZr6dTiz4t+FFzrzcuvM/nGtLeRi9qnaytAn2SuHnHbc9Zn58VsmxYMJ9WWHSGv3Dplg6jYgnvVSYg+F+NBBTWSpxEaBke7ylyQ==";//cpf.encrypt();
 		log.info("CPF criptografado: {}", cpfCriptografado);
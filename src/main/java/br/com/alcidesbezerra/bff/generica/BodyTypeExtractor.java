@@ -0,0 +1,104 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Extrai o tipo informado no body de uma requisição sem fazer o bind do payload para um objeto. O JSON é percorrido
+ * em streaming e a leitura é interrompida assim que a propriedade configurada é encontrada; objetos e arrays de
+ * outras propriedades são ignorados sem serem materializados.
+ *
+ * <br/><br/>A propriedade pode ser aninhada, com os níveis separados por ponto (ex.: {@code formulario.type}). Apenas
+ * valores do tipo string são considerados.
+ */
+@Slf4j
+@Component
+public class BodyTypeExtractor {
+
+    private final JsonFactory jsonFactory;
+    private final String[] propertyPath;
+
+    public BodyTypeExtractor(final ObjectMapper objectMapper,
+        @Value("${security.permission.body-type-property:type}") final String property) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.propertyPath = property.split("\\.");
+    }
+
+    /**
+     * Extrai o tipo do body já lido.
+     *
+     * @param body Conteúdo JSON da requisição
+     * @return O valor da propriedade ou {@code null} se ela não existir, não for string ou o JSON for inválido
+     */
+    public String extract(final byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return find(parser);
+        } catch (final IOException e) {
+            log.warn("Não foi possível extrair o tipo do body: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Extrai o tipo de um stream que suporte {@code mark/reset}. Ao final o stream é reposicionado no início, ficando
+     * disponível para ser lido novamente pelo controller.
+     *
+     * @param body Stream com o conteúdo JSON da requisição
+     * @return O valor da propriedade ou {@code null} se ela não existir, não for string ou o JSON for inválido
+     */
+    public String extract(final InputStream body) throws IOException {
+        if (!body.markSupported()) {
+            throw new IllegalArgumentException("O stream do body precisa suportar mark/reset");
+        }
+
+        body.mark(Integer.MAX_VALUE);
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return find(parser);
+        } catch (final IOException e) {
+            log.warn("Não foi possível extrair o tipo do body: {}", e.getMessage());
+            return null;
+        } finally {
+            body.reset();
+        }
+    }
+
+    private String find(final JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+
+        int level = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.currentName();
+            final JsonToken value = parser.nextToken();
+
+            if (!propertyPath[level].equals(name)) {
+                parser.skipChildren();
+            } else if (level == propertyPath.length - 1) {
+                return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+            } else if (value == JsonToken.START_OBJECT) {
+                level++;
+            } else {
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+}
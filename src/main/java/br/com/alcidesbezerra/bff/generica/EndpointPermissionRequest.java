@@ -0,0 +1,26 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Consulta de permissão de um endpoint usada na resolução em lote.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointPermissionRequest {
+
+    private String path;
+    private String method;
+    private String bodyType;
+
+    /**
+     * Chave da consulta no formato {@code caminho:método}, acrescida de {@code :bodyType} quando informado.
+     */
+    public String toKey() {
+        return bodyType == null ? path + ":" + method : path + ":" + method + ":" + bodyType;
+    }
+
+}
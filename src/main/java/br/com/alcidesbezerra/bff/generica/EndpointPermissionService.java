@@ -0,0 +1,355 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.alcidesbezerra.bff.generica.PermissionIndex.Route;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static java.util.Objects.nonNull;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+@Service
+public class EndpointPermissionService {
+    private static final Logger log = LoggerFactory.getLogger(EndpointPermissionService.class);
+    private static final int MAX_BULK_SIZE = 500;
+    private static final String[] EMPTY_ROLES = new String[]{};
+    private static final Map<String, Object> NO_ROLES = Collections.singletonMap(PermissionPlan.ROLES, EMPTY_ROLES);
+    private static final Map<FormTypeEnum, WLRoles> FORM_TYPE_ROLES = new EnumMap<>(FormTypeEnum.class);
+
+    static {
+        FORM_TYPE_ROLES.put(FormTypeEnum.CONTATO, WLRoles.PERM_OMINI_CHANEL_PERFIL_FORMS_CONTACT);
+        FORM_TYPE_ROLES.put(FormTypeEnum.OUVIDORIA, WLRoles.PERM_OMINI_CHANEL_PERFIL_FORMS_OMBUDSMAN);
+    }
+
+    private final Map<String, PermissionPlan> annotatedPermissions;
+    private final ObjectMapper objectMapper;
+    private final BodyTypeExtractor bodyTypeExtractor;
+    private final Timer reloadSuccess;
+    private final Timer reloadFailure;
+    private volatile PermissionIndex index;
+
+    public EndpointPermissionService(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping requestMappingHandlerMapping,
+                                     ObjectMapper objectMapper,
+                                     BodyTypeExtractor bodyTypeExtractor,
+                                     MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.bodyTypeExtractor = bodyTypeExtractor;
+        Map<RequestMappingInfo, HandlerMethod> handlerMethods = requestMappingHandlerMapping.getHandlerMethods();
+        Map<String, PermissionPlan> tempPermissions = new HashMap<>();
+
+        handlerMethods.forEach((requestMappingInfo, handlerMethod) -> {
+            PreAuthorize preAuthorize = handlerMethod.getMethodAnnotation(PreAuthorize.class);
+
+            if (nonNull(preAuthorize)) {
+                String path;
+                String method;
+                try {
+                    path = requestMappingInfo.getPatternsCondition().getPatterns().iterator().next();
+                    method = requestMappingInfo.getMethodsCondition().getMethods().iterator().next().name();
+                } catch (Exception e) {
+                    log.error("Erro ao processar permissões de endpoint para {}: {}", 
+                        handlerMethod.getMethod(), e.getMessage());
+                    return;
+                }
+
+                // Expressões malformadas devem impedir a subida da aplicação, e não falhar a cada requisição
+                String key = String.format("%s:%s", path, method);
+                PermissionPlan plan = PermissionPlan.compile(preAuthorize.value());
+
+                tempPermissions.put(key, plan);
+                log.debug("Adicionado mapeamento de permissão para {}: {}", key, plan);
+            }
+        });
+
+        this.annotatedPermissions = Collections.unmodifiableMap(tempPermissions);
+        this.index = PermissionIndex.build(1, annotatedPermissions, FORM_TYPE_ROLES, objectMapper);
+        log.info("Índice de permissões gerado com {} rotas e ETag {}", tempPermissions.size(), index.getManifest().getETag());
+
+        this.reloadSuccess = Timer.builder("security.permissions.reload").tag("result", "success").register(meterRegistry);
+        this.reloadFailure = Timer.builder("security.permissions.reload").tag("result", "failure").register(meterRegistry);
+        Gauge.builder("security.permissions.version", this, service -> service.index.getVersion()).register(meterRegistry);
+        Gauge.builder("security.permissions.routes", this, service -> service.index.getPlans().size()).register(meterRegistry);
+    }
+
+    /**
+     * Recompila as permissões aplicando as sobrescritas por cima dos mapeamentos das anotações e substitui o índice
+     * atual de uma só vez. Se alguma sobrescrita for inválida, o índice atual é mantido.
+     *
+     * @param overrides Sobrescritas de rotas e de tipos de formulário
+     * @return {@code true} se o novo índice foi aplicado
+     */
+    public synchronized boolean reload(PermissionOverrides overrides) {
+        long start = System.nanoTime();
+        try {
+            Map<String, PermissionPlan> plans = new HashMap<>(annotatedPermissions);
+            overrides.getRoutes().forEach((key, expression) -> {
+                if (key.lastIndexOf(':') <= 0) {
+                    throw new IllegalArgumentException(String.format("Chave de rota inválida: %s", key));
+                }
+                plans.put(key, PermissionPlan.compile(expression));
+            });
+
+            Map<FormTypeEnum, WLRoles> formTypeRoles = new EnumMap<>(FORM_TYPE_ROLES);
+            overrides.getFormTypes().forEach((type, role) -> formTypeRoles.put(FormTypeEnum.valueOf(type), WLRoles.valueOf(role)));
+
+            PermissionIndex reloaded = PermissionIndex.build(index.getVersion() + 1, plans, formTypeRoles, objectMapper);
+            this.index = reloaded;
+            reloadSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.info("Permissões recarregadas: versão {}, {} rotas, ETag {}", reloaded.getVersion(), plans.size(),
+                reloaded.getManifest().getETag());
+            return true;
+        } catch (RuntimeException e) {
+            reloadFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("Sobrescrita de permissões inválida, mantendo a versão {}: {}", index.getVersion(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Versão atual do índice de permissões. É incrementada a cada recarga aplicada.
+     */
+    public long getVersion() {
+        return index.getVersion();
+    }
+
+    /**
+     * Retorna o manifesto completo de rotas para roles. O body é pré-serializado a cada versão do índice e o response
+     * traz um ETag forte; se o {@code If-None-Match} informado corresponder à versão atual, retorna 304 sem body.
+     *
+     * @param ifNoneMatch Valor do header {@code If-None-Match}, se houver
+     */
+    public ResponseEntity<byte[]> getPermissionManifest(String ifNoneMatch) {
+        PermissionManifest manifest = index.getManifest();
+        if (manifest.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(manifest.getETag())
+                .cacheControl(CacheControl.noCache())
+                .build();
+        }
+
+        return ResponseEntity.ok()
+            .eTag(manifest.getETag())
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .contentLength(manifest.getBody().length)
+            .body(manifest.getBody());
+    }
+
+    public ResponseEntity<Map<String, Object>> getPermissionsForEndpoint(String path, String bodyType) {
+        return resolvePermissions(path, () -> bodyType);
+    }
+
+    /**
+     * Obtém as permissões do endpoint extraindo o tipo diretamente do body JSON da requisição. O body só é lido quando
+     * a rota tem permissão dinâmica, e a leitura é interrompida assim que o tipo é encontrado.
+     *
+     * @param path Caminho no formato {@code caminho:método}
+     * @param body Body JSON da requisição
+     */
+    public ResponseEntity<Map<String, Object>> getPermissionsForRequest(String path, byte[] body) {
+        return resolvePermissions(path, () -> bodyTypeExtractor.extract(body));
+    }
+
+    private ResponseEntity<Map<String, Object>> resolvePermissions(String path, Supplier<String> bodyType) {
+        if (isBlank(path)) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Caminho não pode ser vazio"));
+        }
+
+        String[] pathParts = path.split(":");
+        if (pathParts.length != 2) {
+            log.warn("Formato de caminho inválido: {}. Esperado formato: 'caminho:método'", path);
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Formato de caminho inválido"));
+        }
+
+        String endpointPath = pathParts[0];
+        String method = pathParts[1];
+
+        PermissionIndex current = index;
+        Route matched = current.findRoute(endpointPath, method);
+
+        if (matched == null) {
+            log.warn("Nenhuma permissão encontrada para o caminho: {} e método: {}", endpointPath, method);
+            return ResponseEntity.ok(NO_ROLES);
+        }
+
+        PermissionPlan plan = matched.plan;
+
+        if (plan.isDynamic()) {
+            log.info("Permissão dinâmica encontrada para {}: {}", matched.key, plan.getExpression());
+            return ResponseEntity.ok(Collections.singletonMap(PermissionPlan.ROLES, getDynamicPermissions(current, plan, endpointPath, method, bodyType)));
+        } else {
+            log.info("Permissões encontradas para {}: {}", matched.key, plan);
+            return ResponseEntity.ok(plan.getBody());
+        }
+    }
+
+    /**
+     * Resolve, em uma única chamada, as permissões de vários endpoints. Consultas idênticas dentro do lote são
+     * resolvidas uma única vez e o response traz em {@code roles} as permissões indexadas pela chave de cada consulta
+     * (ver {@link EndpointPermissionRequest#toKey()}).
+     */
+    public ResponseEntity<Map<String, Object>> getPermissionsForEndpoints(List<EndpointPermissionRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Lista de caminhos não pode ser vazia"));
+        }
+
+        if (requests.size() > MAX_BULK_SIZE) {
+            log.warn("Quantidade de caminhos ({}) excede o máximo permitido de {}", requests.size(), MAX_BULK_SIZE);
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Quantidade máxima de caminhos excedida"));
+        }
+
+        Map<String, String[]> roles = new LinkedHashMap<>();
+        for (EndpointPermissionRequest request : requests) {
+            if (request == null || isBlank(request.getPath()) || isBlank(request.getMethod())) {
+                log.warn("Consulta de permissão inválida no lote: {}", request);
+                return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Formato de caminho inválido"));
+            }
+
+            roles.computeIfAbsent(request.toKey(),
+                key -> resolveRoles(request.getPath(), request.getMethod(), request.getBodyType()));
+        }
+
+        log.debug("Permissões resolvidas em lote: {} consultas, {} distintas", requests.size(), roles.size());
+        return ResponseEntity.ok(Collections.singletonMap(PermissionPlan.ROLES, roles));
+    }
+
+    /**
+     * Retorna, em {@code endpoints}, as rotas ({@code caminho:método}) acessíveis por pelo menos uma das roles
+     * informadas e, em {@code formTypes}, os tipos de formulário que essas roles liberam nas rotas dinâmicas. O
+     * resultado vem do índice reverso de roles para rotas, montado junto com o índice de permissões.
+     */
+    public ResponseEntity<Map<String, Object>> getEndpointsForRoles(Collection<String> roles) {
+        if (roles == null || roles.isEmpty()) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Lista de roles não pode ser vazia"));
+        }
+
+        if (roles.size() > MAX_BULK_SIZE) {
+            log.warn("Quantidade de roles ({}) excede o máximo permitido de {}", roles.size(), MAX_BULK_SIZE);
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Quantidade máxima de roles excedida"));
+        }
+
+        PermissionIndex current = index;
+        List<String> endpoints = current.findRoutesForRoles(roles);
+        log.debug("Rotas acessíveis pelas roles {}: {}", roles, endpoints.size());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("endpoints", endpoints);
+        body.put("formTypes", current.findFormTypesForRoles(roles));
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Resolve as rotas ({@code caminho:método}) acessíveis por pelo menos uma das roles, sem montar o response.
+     */
+    public List<String> resolveEndpoints(Collection<String> roles) {
+        return index.findRoutesForRoles(roles);
+    }
+
+    /**
+     * Resolve as roles de um endpoint sem montar o response. Retorna um array vazio quando não há permissão mapeada.
+     * O array retornado é sempre uma cópia e pode ser alterado sem afetar o índice de permissões.
+     *
+     * @param endpointPath Caminho requisitado
+     * @param method Método HTTP
+     * @param bodyType Tipo informado no body, para rotas com permissão dinâmica. Pode ser {@code null}
+     */
+    public String[] resolveRoles(String endpointPath, String method, String bodyType) {
+        PermissionIndex current = index;
+        Route matched = current.findRoute(endpointPath, method);
+
+        if (matched == null) {
+            return EMPTY_ROLES;
+        }
+
+        PermissionPlan plan = matched.plan;
+        return plan.isDynamic() ? getDynamicPermissions(current, plan, endpointPath, method, () -> bodyType) : plan.getRoles();
+    }
+
+    private String[] getDynamicPermissions(PermissionIndex current, PermissionPlan plan, String path, String method,
+                                           Supplier<String> bodyType) {
+        if ("GET".equals(method)) {
+            String pathType = extractTypeFromPath(path, plan.getPathToken());
+            if (pathType != null) {
+                return getPermission(current, pathType);
+            }
+        } else if ("POST".equals(method)) {
+            String type = bodyType.get();
+            if (type != null) {
+                return getPermission(current, type);
+            }
+        }
+
+        // Se não encontrou o tipo no caminho para GET ou não tem bodyType para POST
+        log.info("Tipo não encontrado. Retornando todas as permissões possíveis.");
+        return current.getAllFormTypePermissions();
+    }
+
+    private String extractTypeFromPath(String path, String pathToken) {
+        String[] pathParts = path.split("/");
+        for (int i = 0; i < pathParts.length; i++) {
+            if (pathParts[i].equals(pathToken) && i + 1 < pathParts.length) {
+                return pathParts[i + 1];
+            }
+        }
+        return null;
+    }
+
+    private String[] getPermission(PermissionIndex current, String type) {
+        String[] permission = current.getFormTypePermission(type);
+        if (permission == null) {
+            log.warn("Tipo sem permissão mapeada: {}", type);
+            return EMPTY_ROLES;
+        }
+        return permission;
+    }
+
+    public static void main(String[] args) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        EndpointPermissionService service = new EndpointPermissionService(new RequestMappingHandlerMapping(), objectMapper,
+            new BodyTypeExtractor(objectMapper, "type"), new SimpleMeterRegistry());
+
+        service.simulateDynamicPermissions();
+    }
+
+    private void simulateDynamicPermissions() {
+        // Simular permissão com GET e variável de caminho
+        ResponseEntity<Map<String, Object>> getResult = getPermissionsForEndpoint("/api/forms/{type}/CONTATO:GET", null);
+        System.out.println("Permissões para GET com variável de caminho: " + getResult.getBody());
+
+        // Simular permissão com GET sem variável de caminho
+        ResponseEntity<Map<String, Object>> getNoTypeResult = getPermissionsForEndpoint("/api/forms:GET", null);
+        System.out.println("Permissões para GET sem variável de caminho: " + getNoTypeResult.getBody());
+
+        // Simular permissão com POST e tipo no corpo
+        ResponseEntity<Map<String, Object>> postResult = getPermissionsForEndpoint("/api/forms:POST", "CONTATO");
+        System.out.println("Permissões para POST com tipo no corpo: " + postResult.getBody());
+
+        // Simular permissão com POST sem tipo no corpo
+        ResponseEntity<Map<String, Object>> postNoTypeResult = getPermissionsForEndpoint("/api/forms:POST", null);
+        System.out.println("Permissões para POST sem tipo no corpo: " + postNoTypeResult.getBody());
+
+        // Simular rota sem permissão
+        ResponseEntity<Map<String, Object>> noPermissionResult = getPermissionsForEndpoint("/api/public:GET", null);
+        System.out.println("Permissões para rota sem permissão: " + noPermissionResult.getBody());
+    }
+}
\ No newline at end of file
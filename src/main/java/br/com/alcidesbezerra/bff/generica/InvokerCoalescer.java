@@ -0,0 +1,136 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Agrupa chamadas idênticas e simultâneas de um {@link AbstractInvoker} em uma única chamada ao WebService e,
+ * opcionalmente, mantém os responses em um cache limitado com tempo de expiração.
+ *
+ * <br/><br/>As chamadas são identificadas pelo fingerprint informado pela subclasse. Os contadores ficam disponíveis
+ * na métrica {@code invoker.cache}, com as tags {@code invoker} e {@code result} ({@code hit}, {@code miss} e
+ * {@code coalesced}).
+ *
+ * @param <STUBOUT> Stub de saída da operação
+ */
+final class InvokerCoalescer<STUBOUT> {
+
+    /**
+     * Sinaliza às chamadas agrupadas que a chamada original foi abandonada e que devem refazer a chamada.
+     */
+    private static final RuntimeException ABANDONED = new RuntimeException("Chamada abandonada", null, false, false) {
+    };
+
+    private final ConcurrentMap<Object, CompletableFuture<STUBOUT>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<Object, STUBOUT> responses;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Function<Exception, RuntimeException> onInterrupt;
+
+    /**
+     * @param name Nome do invoker, usado nas métricas
+     * @param ttl Tempo de vida dos responses em cache. Se {@code null}, os responses não são mantidos em cache
+     * @param maximumSize Quantidade máxima de responses em cache
+     * @param meterRegistry Registro das métricas
+     * @param onInterrupt Tratamento da interrupção de uma chamada que aguarda a chamada original
+     */
+    InvokerCoalescer(final String name, final Duration ttl, final long maximumSize, final MeterRegistry meterRegistry,
+        final Function<Exception, RuntimeException> onInterrupt) {
+        this.responses = ttl == null ? null : Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maximumSize)
+            .build();
+        this.hits = counter(meterRegistry, name, "hit");
+        this.misses = counter(meterRegistry, name, "miss");
+        this.coalesced = counter(meterRegistry, name, "coalesced");
+        this.onInterrupt = onInterrupt;
+    }
+
+    private static Counter counter(final MeterRegistry meterRegistry, final String name, final String result) {
+        return Counter.builder("invoker.cache")
+            .tags("invoker", name, "result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Retorna o response em cache para o fingerprint, aguarda uma chamada idêntica que já esteja em andamento ou, se
+     * não houver nenhuma, faz a chamada. Se a chamada original for abandonada, as chamadas agrupadas não recebem a sua
+     * falha: refazem a chamada.
+     *
+     * @param fingerprint Identificação da chamada
+     * @param call Chamada ao WebService. As exceptions lançadas já devem ter passado pelo {@code handleException()}
+     */
+    STUBOUT execute(final Object fingerprint, final Supplier<STUBOUT> call) {
+        if (responses != null) {
+            final STUBOUT cached = responses.getIfPresent(fingerprint);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+
+        for (;;) {
+            final CompletableFuture<STUBOUT> mine = new CompletableFuture<>();
+            final CompletableFuture<STUBOUT> running = inFlight.putIfAbsent(fingerprint, mine);
+            if (running == null) {
+                misses.increment();
+                return lead(fingerprint, mine, call);
+            }
+
+            coalesced.increment();
+            try {
+                return running.get();
+            } catch (final ExecutionException e) {
+                if (e.getCause() != ABANDONED) {
+                    throw rethrow(e.getCause());
+                }
+                // A chamada original foi abandonada: refaz, possivelmente como a nova chamada original
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw onInterrupt.apply(e);
+            }
+        }
+    }
+
+    private STUBOUT lead(final Object fingerprint, final CompletableFuture<STUBOUT> mine, final Supplier<STUBOUT> call) {
+        final STUBOUT stubout;
+        try {
+            stubout = call.get();
+        } catch (final Throwable e) {
+            // Inclui Errors: as chamadas agrupadas não podem ficar esperando um future que nunca termina. A entrada sai
+            // antes de completar o future, para que as chamadas que refazem a chamada não a encontrem de novo
+            inFlight.remove(fingerprint, mine);
+            // A falha de uma chamada abandonada (timeout da chamada assíncrona) é só dela, não das chamadas agrupadas
+            mine.completeExceptionally(InvokerTask.isCurrentAbandoned() ? ABANDONED : e);
+            throw e;
+        }
+        if (responses != null && stubout != null) {
+            responses.put(fingerprint, stubout);
+        }
+        inFlight.remove(fingerprint, mine);
+        mine.complete(stubout);
+        return stubout;
+    }
+
+    private static RuntimeException rethrow(final Throwable cause) {
+        // Repassa a mesma exception, já tratada, recebida pela chamada original
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+    }
+
+}
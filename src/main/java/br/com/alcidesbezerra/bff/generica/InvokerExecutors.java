@@ -0,0 +1,89 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executores usados nas chamadas assíncronas do {@link AbstractInvoker}.
+ *
+ * <br/><br/>As chamadas aos WebServices são bloqueantes, então o executor padrão usa uma virtual thread por tarefa
+ * quando o runtime suporta (Java 21+). Em versões anteriores, usa um pool limitado de threads de plataforma, com até
+ * {@code bff.invoker.max-threads} threads (padrão 200) e uma fila de até {@code bff.invoker.queue-capacity} tarefas
+ * (padrão 1000), lidos das propriedades de sistema. Com o pool e a fila cheios, a tarefa é rejeitada com
+ * {@link RejectedExecutionException} ({@link ThreadPoolExecutor.AbortPolicy}); o {@link AbstractInvoker} trata a
+ * rejeição sem criar threads além do limite.
+ */
+@Slf4j
+public final class InvokerExecutors {
+
+    static final String MAX_THREADS = "bff.invoker.max-threads";
+    static final String QUEUE_CAPACITY = "bff.invoker.queue-capacity";
+
+    private static final ExecutorService DEFAULT;
+    private static final boolean VIRTUAL;
+
+    static {
+        ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+        VIRTUAL = virtual != null;
+        DEFAULT = VIRTUAL ? virtual
+            : newBoundedThreadPool(Integer.getInteger(MAX_THREADS, 200), Integer.getInteger(QUEUE_CAPACITY, 1_000));
+    }
+
+    private InvokerExecutors() {
+    }
+
+    /**
+     * Executor padrão compartilhado pelos invokers que não indicam um executor próprio.
+     */
+    public static ExecutorService defaultExecutor() {
+        return DEFAULT;
+    }
+
+    /**
+     * Indica se o executor padrão está usando virtual threads.
+     */
+    public static boolean isVirtual() {
+        return VIRTUAL;
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        final ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+        if (executor != null) {
+            log.info("Chamadas assíncronas dos invokers usando virtual threads");
+        } else {
+            log.info("Virtual threads indisponíveis. Chamadas assíncronas dos invokers usando pool de threads.");
+        }
+        return executor;
+    }
+
+    /**
+     * Cria o pool de threads de plataforma usado quando não há virtual threads. As threads ociosas são encerradas após
+     * um minuto.
+     *
+     * @param maxThreads Quantidade máxima de threads
+     * @param queueCapacity Quantidade máxima de tarefas aguardando uma thread
+     */
+    static ThreadPoolExecutor newBoundedThreadPool(final int maxThreads, final int queueCapacity) {
+        if (maxThreads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException(String.format("%s e %s devem ser positivos: %d, %d", MAX_THREADS,
+                QUEUE_CAPACITY, maxThreads, queueCapacity));
+        }
+
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 1, TimeUnit.MINUTES,
+            new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                final Thread thread = new Thread(runnable, "invoker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+}
@@ -0,0 +1,197 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Proteções de um {@link AbstractInvoker} contra um WebService lento ou fora do ar:
+ *
+ * <ul>
+ * <li><strong>bulkhead:</strong> limita a quantidade de chamadas simultâneas à operação, evitando que um único
+ * backend lento ocupe todas as threads de request da aplicação;</li>
+ * <li><strong>circuit breaker:</strong> após uma sequência de falhas do backend, abre o circuito e passa a rejeitar as
+ * chamadas imediatamente. Depois do tempo de abertura, uma única chamada de teste é liberada (meio-aberto); se tiver
+ * sucesso o circuito fecha, senão volta a abrir.</li>
+ * </ul>
+ *
+ * Também mantém as latências recentes da operação, usadas para calcular o atraso dos hedges, e os contadores de
+ * hedges e retentativas.
+ *
+ * <br/><br/>O estado fica disponível nas métricas {@code invoker.circuit.state} (0 fechado, 1 aberto, 2 meio-aberto),
+ * {@code invoker.bulkhead.available}, {@code invoker.rejected}, {@code invoker.hedge} e {@code invoker.retry}, com a
+ * tag {@code invoker}.
+ */
+@Slf4j
+final class InvokerGuard {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final Semaphore bulkhead;
+    private final long maxWaitNanos;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final Counter rejectedByCircuit;
+    private final Counter rejectedByBulkhead;
+    private final Counter hedges;
+    private final Counter retries;
+    private final Counter retriesDenied;
+    private final LatencyWindow latencies = new LatencyWindow(256);
+    private volatile long openedAt;
+
+    InvokerGuard(final String name, final int maxConcurrentCalls, final Duration maxWait, final int failureThreshold,
+        final Duration openDuration, final MeterRegistry meterRegistry) {
+        this.name = name;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+
+        Gauge.builder("invoker.circuit.state", state, s -> s.get().ordinal())
+            .tag("invoker", name)
+            .register(meterRegistry);
+        Gauge.builder("invoker.bulkhead.available", bulkhead, Semaphore::availablePermits)
+            .tag("invoker", name)
+            .register(meterRegistry);
+        this.rejectedByCircuit = Counter.builder("invoker.rejected")
+            .tags("invoker", name, "reason", "circuit_open")
+            .register(meterRegistry);
+        this.rejectedByBulkhead = Counter.builder("invoker.rejected")
+            .tags("invoker", name, "reason", "bulkhead_full")
+            .register(meterRegistry);
+        this.hedges = Counter.builder("invoker.hedge")
+            .tag("invoker", name)
+            .register(meterRegistry);
+        this.retries = Counter.builder("invoker.retry")
+            .tags("invoker", name, "result", "retried")
+            .register(meterRegistry);
+        this.retriesDenied = Counter.builder("invoker.retry")
+            .tags("invoker", name, "result", "budget_exhausted")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Tenta liberar uma chamada ao WebService. Se retornar {@code true}, o chamador deve obrigatoriamente chamar
+     * {@link #release(boolean)} ao final.
+     */
+    boolean tryAcquire() {
+        if (!allowCall()) {
+            rejectedByCircuit.increment();
+            return false;
+        }
+
+        if (!acquirePermit()) {
+            // A chamada de teste do meio-aberto não chegou a ser feita; outra poderá ser liberada
+            state.compareAndSet(State.HALF_OPEN, State.OPEN);
+            rejectedByBulkhead.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Libera a vaga do bulkhead e registra o resultado da chamada no circuit breaker. Com o circuito aberto, o
+     * resultado é ignorado: são chamadas lentas iniciadas antes da abertura e não dizem nada sobre o backend agora. Só
+     * um sucesso no meio-aberto (a chamada de teste) fecha o circuito.
+     *
+     * @param backendFailure {@code true} se a chamada falhou por indisponibilidade ou erro do WebService
+     */
+    void release(final boolean backendFailure) {
+        bulkhead.release();
+
+        switch (state.get()) {
+            case CLOSED:
+                if (!backendFailure) {
+                    consecutiveFailures.set(0);
+                } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                    open();
+                }
+                break;
+            case HALF_OPEN:
+                if (backendFailure) {
+                    open();
+                } else if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+                    consecutiveFailures.set(0);
+                    log.info("Circuito do invoker {} fechado", name);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Libera a vaga do bulkhead de uma chamada abandonada (ver {@link InvokerTask}), sem registrar o resultado. Se
+     * era a chamada de teste do meio-aberto, volta a abrir o circuito para que outra possa ser liberada.
+     */
+    void releaseAbandoned() {
+        bulkhead.release();
+        state.compareAndSet(State.HALF_OPEN, State.OPEN);
+    }
+
+    State getState() {
+        return state.get();
+    }
+
+    LatencyWindow getLatencies() {
+        return latencies;
+    }
+
+    void recordHedge() {
+        hedges.increment();
+    }
+
+    /**
+     * Registra a decisão de retentativa.
+     *
+     * @param allowed {@code true} se a retentativa foi feita; {@code false} se foi negada pelo orçamento
+     */
+    void recordRetry(final boolean allowed) {
+        (allowed ? retries : retriesDenied).increment();
+    }
+
+    private boolean allowCall() {
+        switch (state.get()) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return System.nanoTime() - openedAt >= openNanos && state.compareAndSet(State.OPEN, State.HALF_OPEN);
+            default:
+                return false;
+        }
+    }
+
+    private boolean acquirePermit() {
+        if (maxWaitNanos <= 0) {
+            return bulkhead.tryAcquire();
+        }
+
+        try {
+            return bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.OPEN) != State.OPEN) {
+            log.warn("Circuito do invoker {} aberto por {} ms", name, TimeUnit.NANOSECONDS.toMillis(openNanos));
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import br.com.alcidesbezerra.bff.generica.security.domain.ErrorType;
+import br.com.alcidesbezerra.bff.generica.security.exception.AbstractErrorException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas por operação de um {@link AbstractInvoker}. Todas as métricas têm as tags {@code invoker} e
+ * {@code operation}:
+ *
+ * <ul>
+ * <li>{@code invoker.calls}: timer da chamada completa, incluindo cache, retentativas e hedges, com a tag
+ * {@code outcome} ({@code success} ou {@code error});</li>
+ * <li>{@code invoker.invoke}: timer de cada execução do {@code invoke()}, ou seja, o tempo gasto no WebService;</li>
+ * <li>{@code invoker.mapper}: timer dos mappers do fluxo fluente, com a tag {@code direction} ({@code request} ou
+ * {@code response});</li>
+ * <li>{@code invoker.in_flight}: quantidade de chamadas em andamento;</li>
+ * <li>{@code invoker.errors}: erros por {@code error_type}, que é o {@link ErrorType} da
+ * {@link AbstractErrorException} retornada pelo {@code handleException()}, ou {@code UNCLASSIFIED} para as demais
+ * exceptions.</li>
+ * </ul>
+ */
+final class InvokerMetrics {
+
+    static final String UNCLASSIFIED = "UNCLASSIFIED";
+
+    private final String name;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Operation> operations = new ConcurrentHashMap<>();
+    private final Function<String, Operation> factory = this::create;
+
+    InvokerMetrics(final String name, final MeterRegistry meterRegistry) {
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Retorna as métricas da operação, registrando-as na primeira chamada.
+     */
+    Operation operation(final String operation) {
+        final Operation current = operations.get(operation);
+        return current != null ? current : operations.computeIfAbsent(operation, factory);
+    }
+
+    private Operation create(final String operation) {
+        return new Operation(name, operation, meterRegistry);
+    }
+
+    static final class Operation {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Timer success;
+        private final Timer error;
+        private final Timer invoke;
+        private final Timer requestMapper;
+        private final Timer responseMapper;
+        private final Map<ErrorType, Counter> errors = new EnumMap<>(ErrorType.class);
+        private final Counter unclassified;
+
+        private Operation(final String name, final String operation, final MeterRegistry meterRegistry) {
+            this.success = timer("invoker.calls", name, operation, "outcome", "success", meterRegistry);
+            this.error = timer("invoker.calls", name, operation, "outcome", "error", meterRegistry);
+            this.invoke = Timer.builder("invoker.invoke")
+                .tags("invoker", name, "operation", operation)
+                .register(meterRegistry);
+            this.requestMapper = timer("invoker.mapper", name, operation, "direction", "request", meterRegistry);
+            this.responseMapper = timer("invoker.mapper", name, operation, "direction", "response", meterRegistry);
+            Gauge.builder("invoker.in_flight", inFlight, AtomicInteger::get)
+                .tags("invoker", name, "operation", operation)
+                .register(meterRegistry);
+            for (final ErrorType errorType : ErrorType.values()) {
+                errors.put(errorType, errorCounter(name, operation, errorType.name(), meterRegistry));
+            }
+            this.unclassified = errorCounter(name, operation, UNCLASSIFIED, meterRegistry);
+        }
+
+        private static Timer timer(final String metric, final String name, final String operation, final String key,
+            final String value, final MeterRegistry meterRegistry) {
+            return Timer.builder(metric)
+                .tags("invoker", name, "operation", operation, key, value)
+                .register(meterRegistry);
+        }
+
+        private static Counter errorCounter(final String name, final String operation, final String errorType,
+            final MeterRegistry meterRegistry) {
+            return Counter.builder("invoker.errors")
+                .tags("invoker", name, "operation", operation, "error_type", errorType)
+                .register(meterRegistry);
+        }
+
+        /**
+         * Marca o início de uma chamada. O retorno deve ser passado para {@link #success(long)} ou
+         * {@link #failure(long, Throwable)} ou, se a chamada foi abandonada, a chamada termina com {@link #abandoned()}.
+         */
+        long start() {
+            inFlight.incrementAndGet();
+            return System.nanoTime();
+        }
+
+        void success(final long start) {
+            success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            inFlight.decrementAndGet();
+        }
+
+        void failure(final long start, final Throwable e) {
+            error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            inFlight.decrementAndGet();
+            error(e);
+        }
+
+        /**
+         * Registra o timeout de uma chamada assíncrona, com o tempo desde o seu agendamento. É o único registro da
+         * chamada: se ela chegou a começar, termina com {@link #abandoned()}.
+         */
+        void timeout(final long submitted, final Throwable e) {
+            error.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+            error(e);
+        }
+
+        /**
+         * Termina uma chamada abandonada, cujo resultado já foi registrado por {@link #timeout(long, Throwable)}.
+         */
+        void abandoned() {
+            inFlight.decrementAndGet();
+        }
+
+        private void error(final Throwable e) {
+            if (e instanceof AbstractErrorException && ((AbstractErrorException) e).getErrorType() != null) {
+                errors.get(((AbstractErrorException) e).getErrorType()).increment();
+            } else {
+                unclassified.increment();
+            }
+        }
+
+        Timer getInvoke() {
+            return invoke;
+        }
+
+        Timer getRequestMapper() {
+            return requestMapper;
+        }
+
+        Timer getResponseMapper() {
+            return responseMapper;
+        }
+    }
+
+}
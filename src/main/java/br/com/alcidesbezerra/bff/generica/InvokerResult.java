@@ -0,0 +1,50 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * Resultado de uma chamada feita em lote pelo {@link AbstractInvoker}. Contém o STUB de response ou a exception, já
+ * tratada pelo {@code handleException()}, que ocorreu naquela chamada.
+ *
+ * @param <STUBOUT> STUB de response da operação
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class InvokerResult<STUBOUT> {
+
+    private final STUBOUT stubout;
+    private final RuntimeException error;
+
+    static <STUBOUT> InvokerResult<STUBOUT> success(final STUBOUT stubout) {
+        return new InvokerResult<>(stubout, null);
+    }
+
+    static <STUBOUT> InvokerResult<STUBOUT> failure(final RuntimeException error) {
+        return new InvokerResult<>(null, error);
+    }
+
+    /**
+     * Indica se a chamada foi feita com sucesso.
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Retorna o STUB de response da operação ou lança a exception da chamada, caso tenha falhado.
+     */
+    public STUBOUT get() {
+        if (error != null) {
+            throw error;
+        }
+        return stubout;
+    }
+
+    /**
+     * Exception da chamada, já tratada pelo {@code handleException()}, ou {@code null} se foi feita com sucesso.
+     */
+    public RuntimeException getError() {
+        return error;
+    }
+
+}
@@ -0,0 +1,96 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Chamada de um {@link AbstractInvoker} feita no executor do invoker que pode ser abandonada, quando o timeout da
+ * chamada assíncrona é atingido ou quando o future é cancelado.
+ *
+ * <br/><br/>Uma tarefa abandonada antes de começar não é mais executada: não ocupa vaga do bulkhead nem entra no
+ * agrupador de chamadas. Se já estiver em andamento, a sua thread é interrompida. Quando a interrupção não encerra a
+ * chamada ao WebService (I/O bloqueante em threads de plataforma), ela segue até o fim com a sua vaga do bulkhead, o
+ * que mantém o limite de chamadas simultâneas ao backend, mas o seu resultado não é registrado no circuit breaker nem
+ * nas latências usadas pelo hedge (ver {@link #isCurrentAbandoned()}).
+ *
+ * @param <T> Tipo do resultado
+ */
+final class InvokerTask<T> extends CompletableFuture<T> implements Runnable {
+
+    private static final ThreadLocal<InvokerTask<?>> CURRENT = new ThreadLocal<>();
+
+    private final Supplier<T> call;
+    private volatile boolean abandoned;
+    private Thread runner;
+
+    private InvokerTask(final Supplier<T> call) {
+        this.call = call;
+    }
+
+    /**
+     * Agenda a chamada no executor.
+     */
+    static <T> InvokerTask<T> submit(final Supplier<T> call, final Executor executor) {
+        final InvokerTask<T> task = new InvokerTask<>(call);
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Indica se a tarefa em execução na thread atual foi abandonada. Fora de uma {@link InvokerTask}, é {@code false}.
+     */
+    static boolean isCurrentAbandoned() {
+        final InvokerTask<?> current = CURRENT.get();
+        return current != null && current.abandoned;
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (abandoned || isDone()) {
+                return;
+            }
+            runner = Thread.currentThread();
+        }
+
+        final InvokerTask<?> previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            complete(call.get());
+        } catch (final Throwable e) {
+            completeExceptionally(e);
+        } finally {
+            CURRENT.set(previous);
+            synchronized (this) {
+                runner = null;
+                if (abandoned) {
+                    // A interrupção era só para esta tarefa; não pode vazar para a próxima da mesma thread
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    /**
+     * Abandona a tarefa: se ainda não começou, não será executada; se estiver em andamento, a thread é interrompida.
+     */
+    void abandon() {
+        synchronized (this) {
+            abandoned = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Cancela o future e abandona a tarefa, interrompendo a thread mesmo com {@code mayInterruptIfRunning} falso.
+     */
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        abandon();
+        return super.cancel(mayInterruptIfRunning);
+    }
+
+}
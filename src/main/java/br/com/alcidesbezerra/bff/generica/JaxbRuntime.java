@@ -0,0 +1,183 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runtime JAXB compartilhado pelos {@link AbstractInvoker}s para os STUBs gerados a partir de
+ * {@code src/main/resources/bindings}.
+ *
+ * <br/><br/>É criado um {@link JAXBContext} por pacote de STUBs indicado em {@code jaxb.stub-packages}, na subida da
+ * aplicação; um pacote inválido impede a subida. Os {@link Marshaller}s e {@link Unmarshaller}s, que não são
+ * thread-safe, ficam em pools limitados por {@code jaxb.pool-size} e são reaproveitados entre as chamadas. Os pools
+ * não usam {@link ThreadLocal} para não reter uma instância por virtual thread.
+ *
+ * <br/><br/>Os métodos escrevem e leem diretamente de streams ou de {@link Result}/{@link Source}, sem {@code String}
+ * intermediária. As {@link JAXBException}s são propagadas para que, dentro do {@code invoke()}, passem pelo
+ * {@code handleException()} do invoker.
+ */
+@Slf4j
+@Component
+public class JaxbRuntime {
+
+    private final Map<String, Entry> contexts;
+
+    public JaxbRuntime(@Value("${jaxb.stub-packages:}") final String[] stubPackages,
+        @Value("${jaxb.pool-size:32}") final int poolSize) {
+        final Map<String, Entry> created = new HashMap<>();
+        for (final String stubPackage : stubPackages) {
+            final String name = stubPackage.trim();
+            if (name.isEmpty() || created.containsKey(name)) {
+                continue;
+            }
+
+            try {
+                created.put(name, new Entry(JAXBContext.newInstance(name, getClass().getClassLoader()), poolSize));
+            } catch (final JAXBException e) {
+                throw new IllegalStateException(String.format("Não foi possível criar o JAXBContext do pacote %s", name),
+                    e);
+            }
+            log.info("JAXBContext criado para o pacote {}", name);
+        }
+        this.contexts = Collections.unmodifiableMap(created);
+    }
+
+    /**
+     * Pacotes de STUBs com contexto criado.
+     */
+    public Set<String> getStubPackages() {
+        return contexts.keySet();
+    }
+
+    /**
+     * Retorna o contexto do pacote do STUB.
+     *
+     * @param type Classe do STUB
+     * @throws IllegalArgumentException Caso o pacote não esteja em {@code jaxb.stub-packages}
+     */
+    public JAXBContext getContext(final Class<?> type) {
+        return entry(type).context;
+    }
+
+    /**
+     * Faz o marshal do STUB diretamente no stream, em UTF-8.
+     *
+     * @param stub STUB anotado com {@code @XmlRootElement} ou {@link JAXBElement}
+     * @param out Stream de destino. Não é fechado
+     */
+    public void marshal(final Object stub, final OutputStream out) throws JAXBException {
+        marshal(stub, new StreamResult(out));
+    }
+
+    /**
+     * Faz o marshal do STUB no {@link Result} informado, por exemplo o body de uma mensagem SOAP.
+     *
+     * @param stub STUB anotado com {@code @XmlRootElement} ou {@link JAXBElement}
+     * @param result Destino do XML
+     */
+    public void marshal(final Object stub, final Result result) throws JAXBException {
+        final Entry entry = entry(stubType(stub));
+        final Marshaller marshaller = entry.borrowMarshaller();
+        try {
+            marshaller.marshal(stub, result);
+        } finally {
+            entry.marshallers.offer(marshaller);
+        }
+    }
+
+    /**
+     * Faz o unmarshal do stream diretamente para o STUB.
+     *
+     * @param in Stream com o XML. Não é fechado
+     * @param type Classe do STUB
+     */
+    public <T> T unmarshal(final InputStream in, final Class<T> type) throws JAXBException {
+        return unmarshal(new StreamSource(in), type);
+    }
+
+    /**
+     * Faz o unmarshal do {@link Source} informado, por exemplo o body de uma mensagem SOAP, para o STUB. Funciona
+     * também para STUBs sem {@code @XmlRootElement}.
+     *
+     * @param source Origem do XML
+     * @param type Classe do STUB
+     */
+    public <T> T unmarshal(final Source source, final Class<T> type) throws JAXBException {
+        final Entry entry = entry(type);
+        final Unmarshaller unmarshaller = entry.borrowUnmarshaller();
+        try {
+            return unmarshaller.unmarshal(source, type).getValue();
+        } finally {
+            entry.unmarshallers.offer(unmarshaller);
+        }
+    }
+
+    private static Class<?> stubType(final Object stub) {
+        return stub instanceof JAXBElement ? ((JAXBElement<?>) stub).getDeclaredType() : stub.getClass();
+    }
+
+    private Entry entry(final Class<?> type) {
+        final Entry entry = contexts.get(type.getPackage().getName());
+        if (entry == null) {
+            throw new IllegalArgumentException(
+                String.format("Pacote do STUB %s não está configurado em jaxb.stub-packages", type.getName()));
+        }
+        return entry;
+    }
+
+    /**
+     * Contexto de um pacote de STUBs e os pools de marshallers e unmarshallers. Quando o pool está vazio é criada uma
+     * nova instância; quando está cheio, a instância devolvida é descartada.
+     */
+    private static final class Entry {
+
+        private final JAXBContext context;
+        private final BlockingQueue<Marshaller> marshallers;
+        private final BlockingQueue<Unmarshaller> unmarshallers;
+
+        private Entry(final JAXBContext context, final int poolSize) {
+            this.context = context;
+            this.marshallers = new ArrayBlockingQueue<>(poolSize);
+            this.unmarshallers = new ArrayBlockingQueue<>(poolSize);
+        }
+
+        private Marshaller borrowMarshaller() throws JAXBException {
+            final Marshaller pooled = marshallers.poll();
+            if (pooled != null) {
+                return pooled;
+            }
+
+            final Marshaller marshaller = context.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_ENCODING, StandardCharsets.UTF_8.name());
+            return marshaller;
+        }
+
+        private Unmarshaller borrowUnmarshaller() throws JAXBException {
+            final Unmarshaller pooled = unmarshallers.poll();
+            return pooled != null ? pooled : context.createUnmarshaller();
+        }
+    }
+
+}
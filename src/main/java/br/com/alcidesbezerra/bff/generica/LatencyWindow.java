@@ -0,0 +1,48 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Janela circular com as latências mais recentes de uma operação, usada para estimar o percentil 95. As gravações não
+ * são sincronizadas, então o percentil é uma aproximação, suficiente para decidir quando disparar um hedge.
+ */
+final class LatencyWindow {
+
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final long[] samples;
+    private final AtomicLong count = new AtomicLong();
+    private volatile long p95 = -1;
+    private volatile long computedAt;
+
+    LatencyWindow(final int size) {
+        this.samples = new long[size];
+    }
+
+    void record(final long nanos) {
+        final long n = count.getAndIncrement();
+        samples[(int) (n % samples.length)] = nanos;
+    }
+
+    /**
+     * Percentil 95 das latências da janela, em nanossegundos, ou {@code -1} enquanto não houver amostras suficientes.
+     * O valor é recalculado a cada {@value #RECOMPUTE_EVERY} novas amostras.
+     */
+    long p95Nanos() {
+        final long n = count.get();
+        if (n < MIN_SAMPLES) {
+            return -1;
+        }
+
+        if (p95 < 0 || n - computedAt >= RECOMPUTE_EVERY) {
+            final long[] sorted = Arrays.copyOf(samples, (int) Math.min(n, samples.length));
+            Arrays.sort(sorted);
+            p95 = sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+            computedAt = n;
+        }
+        return p95;
+    }
+
+}
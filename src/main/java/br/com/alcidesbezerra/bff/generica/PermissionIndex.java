@@ -0,0 +1,212 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.util.AntPathMatcher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Índice imutável de rotas para planos de permissão. Cada recarga das permissões gera um novo índice completo, que
+ * substitui o anterior de uma só vez; quem está lendo nunca enxerga um índice parcialmente montado.
+ *
+ * <br/><br/>O índice também guarda o mapeamento reverso: cada rota recebe um ID (sua posição na ordem das chaves) e
+ * cada role, um {@link BitSet} com os IDs das rotas que ela acessa. As rotas acessíveis por um conjunto de roles saem
+ * da união desses bitsets, sem reavaliar os planos.
+ */
+final class PermissionIndex {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final long version;
+    private final Map<String, PermissionPlan> plans;
+    private final List<Route> patternRoutes;
+    private final Map<String, String[]> formTypePermissions;
+    private final String[] allFormTypePermissions;
+    private final String[] routeKeys;
+    private final Map<String, BitSet> routesByRole;
+    private final Map<String, List<String>> formTypesByRole;
+    private final PermissionManifest manifest;
+
+    private PermissionIndex(final long version, final Map<String, PermissionPlan> plans,
+        final Map<FormTypeEnum, WLRoles> formTypeRoles, final ObjectMapper objectMapper) {
+        this.version = version;
+        this.plans = Collections.unmodifiableMap(new HashMap<>(plans));
+
+        final List<Route> routes = new ArrayList<>();
+        plans.forEach((key, plan) -> {
+            final int separator = key.lastIndexOf(':');
+            final String path = key.substring(0, separator);
+            if (PATH_MATCHER.isPattern(path)) {
+                routes.add(new Route(key, path, key.substring(separator + 1), plan));
+            }
+        });
+        this.patternRoutes = Collections.unmodifiableList(routes);
+
+        final Map<String, String[]> permissions = new HashMap<>();
+        formTypeRoles.forEach((type, role) -> permissions.put(type.name(), new String[]{role.getKey()}));
+        this.formTypePermissions = Collections.unmodifiableMap(permissions);
+        this.allFormTypePermissions = formTypeRoles.values().stream().map(WLRoles::getKey).toArray(String[]::new);
+
+        final Map<String, List<String>> typesByRole = new HashMap<>();
+        formTypeRoles.forEach((type, role) -> typesByRole.computeIfAbsent(role.getKey(), key -> new ArrayList<>())
+            .add(type.name()));
+        this.formTypesByRole = Collections.unmodifiableMap(typesByRole);
+
+        this.routeKeys = new TreeMap<>(plans).keySet().toArray(new String[0]);
+        this.routesByRole = Collections.unmodifiableMap(buildRoutesByRole());
+
+        this.manifest = buildManifest(objectMapper);
+    }
+
+    /**
+     * Monta um novo índice.
+     *
+     * @param version Versão do índice
+     * @param plans Planos de permissão por chave {@code caminho:método}
+     * @param formTypeRoles Role de cada tipo de formulário, usada nas permissões dinâmicas
+     * @param objectMapper Mapper usado para serializar o manifesto
+     */
+    static PermissionIndex build(final long version, final Map<String, PermissionPlan> plans,
+        final Map<FormTypeEnum, WLRoles> formTypeRoles, final ObjectMapper objectMapper) {
+        return new PermissionIndex(version, plans, formTypeRoles, objectMapper);
+    }
+
+    /**
+     * Monta o bitset de rotas de cada role. Rotas dinâmicas são acessíveis por qualquer role de tipo de formulário.
+     */
+    private Map<String, BitSet> buildRoutesByRole() {
+        final Map<String, BitSet> byRole = new HashMap<>();
+        for (int id = 0; id < routeKeys.length; id++) {
+            final PermissionPlan plan = plans.get(routeKeys[id]);
+            for (final String role : plan.isDynamic() ? allFormTypePermissions : plan.getRoles()) {
+                byRole.computeIfAbsent(role, key -> new BitSet(routeKeys.length)).set(id);
+            }
+        }
+        return byRole;
+    }
+
+    private PermissionManifest buildManifest(final ObjectMapper objectMapper) {
+        final SortedMap<String, String[]> routes = new TreeMap<>();
+        final SortedMap<String, String> dynamic = new TreeMap<>();
+
+        plans.forEach((key, plan) -> {
+            if (plan.isDynamic()) {
+                routes.put(key, allFormTypePermissions);
+                dynamic.put(key, plan.getTypeParam());
+            } else {
+                routes.put(key, plan.getRoles());
+            }
+        });
+
+        return PermissionManifest.of(routes, dynamic, objectMapper);
+    }
+
+    /**
+     * Busca a rota do caminho e método informados: primeiro pela chave exata e, em seguida, pelas rotas declaradas
+     * como padrão.
+     *
+     * @return A rota encontrada ou {@code null}
+     */
+    Route findRoute(final String requestedPath, final String method) {
+        final String key = requestedPath + ":" + method;
+        final PermissionPlan exactMatch = plans.get(key);
+
+        if (exactMatch != null) {
+            return new Route(key, requestedPath, method, exactMatch);
+        }
+
+        for (final Route route : patternRoutes) {
+            if (route.method.equals(method) && PATH_MATCHER.match(route.path, requestedPath)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cópia da permissão do tipo de formulário informado ou {@code null} se o tipo não estiver mapeado.
+     */
+    String[] getFormTypePermission(final String type) {
+        final String[] permission = formTypePermissions.get(type);
+        return permission == null ? null : permission.clone();
+    }
+
+    /**
+     * Cópia de todas as permissões possíveis para rotas dinâmicas.
+     */
+    String[] getAllFormTypePermissions() {
+        return allFormTypePermissions.clone();
+    }
+
+    /**
+     * Chaves {@code caminho:método} das rotas acessíveis por pelo menos uma das roles, em ordem alfabética. Roles sem
+     * rotas mapeadas são ignoradas.
+     */
+    List<String> findRoutesForRoles(final Collection<String> roles) {
+        final BitSet reachable = new BitSet(routeKeys.length);
+        for (final String role : roles) {
+            final BitSet routes = routesByRole.get(role);
+            if (routes != null) {
+                reachable.or(routes);
+            }
+        }
+
+        final List<String> keys = new ArrayList<>(reachable.cardinality());
+        for (int id = reachable.nextSetBit(0); id >= 0; id = reachable.nextSetBit(id + 1)) {
+            keys.add(routeKeys[id]);
+        }
+        return keys;
+    }
+
+    /**
+     * Tipos de formulário liberados por pelo menos uma das roles nas rotas dinâmicas, em ordem alfabética.
+     */
+    List<String> findFormTypesForRoles(final Collection<String> roles) {
+        final SortedSet<String> types = new TreeSet<>();
+        for (final String role : roles) {
+            types.addAll(formTypesByRole.getOrDefault(role, Collections.emptyList()));
+        }
+        return new ArrayList<>(types);
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    Map<String, PermissionPlan> getPlans() {
+        return plans;
+    }
+
+    PermissionManifest getManifest() {
+        return manifest;
+    }
+
+    /**
+     * Rota compilada: chave {@code caminho:método} e o plano de permissão correspondente.
+     */
+    static final class Route {
+        final String key;
+        final String path;
+        final String method;
+        final PermissionPlan plan;
+
+        private Route(final String key, final String path, final String method, final PermissionPlan plan) {
+            this.key = key;
+            this.path = path;
+            this.method = method;
+            this.plan = plan;
+        }
+    }
+
+}
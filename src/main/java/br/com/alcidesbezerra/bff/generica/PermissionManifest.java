@@ -0,0 +1,83 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Manifesto com o mapeamento completo de rotas para roles. O JSON é serializado uma única vez, na criação, e o seu
+ * hash é usado como ETag forte, permitindo que os clientes mantenham o manifesto em cache e apenas revalidem via
+ * {@code If-None-Match}.
+ */
+final class PermissionManifest {
+
+    private final byte[] body;
+    private final String eTag;
+
+    private PermissionManifest(final byte[] body) {
+        this.body = body;
+        this.eTag = "\"" + DigestUtils.sha256Hex(body) + "\"";
+    }
+
+    /**
+     * Serializa o manifesto.
+     *
+     * @param routes Roles de cada rota ({@code caminho:método}), ordenadas pela chave para que o hash seja estável
+     * @param dynamic Parâmetro de tipo das rotas com permissão dinâmica
+     * @param objectMapper Mapper usado na serialização
+     */
+    static PermissionManifest of(final SortedMap<String, String[]> routes, final SortedMap<String, String> dynamic,
+        final ObjectMapper objectMapper) {
+        final Map<String, Object> content = new LinkedHashMap<>();
+        content.put("routes", routes);
+        content.put("dynamic", dynamic);
+
+        try {
+            return new PermissionManifest(objectMapper.writeValueAsBytes(content));
+        } catch (final JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar o manifesto de permissões", e);
+        }
+    }
+
+    /**
+     * JSON pré-serializado do manifesto. O array é compartilhado e não deve ser alterado.
+     */
+    byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * ETag forte (entre aspas) calculado a partir do conteúdo do manifesto.
+     */
+    String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Indica se o valor do header {@code If-None-Match} corresponde à versão atual do manifesto.
+     */
+    boolean matches(final String ifNoneMatch) {
+        if (isBlank(ifNoneMatch)) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if ("*".equals(candidate) || eTag.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
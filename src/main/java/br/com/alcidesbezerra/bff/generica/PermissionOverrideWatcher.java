@@ -0,0 +1,123 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Observa o arquivo externo de sobrescrita de permissões ({@code security.permission.override-file}) e, a cada
+ * alteração, recompila as permissões em background através de {@link EndpointPermissionService#reload}.
+ *
+ * <br/><br/>O arquivo é carregado uma vez na subida; se estiver inválido nesse momento a aplicação não sobe. Falhas em
+ * recargas posteriores são apenas logadas e o índice atual é mantido. Se o arquivo for removido, voltam a valer apenas
+ * as anotações.
+ */
+@Slf4j
+@Component
+public class PermissionOverrideWatcher implements DisposableBean {
+
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private final EndpointPermissionService endpointPermissionService;
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final WatchService watchService;
+
+    public PermissionOverrideWatcher(final EndpointPermissionService endpointPermissionService,
+        final ObjectMapper objectMapper,
+        @Value("${security.permission.override-file:}") final String overrideFile) throws IOException {
+        this.endpointPermissionService = endpointPermissionService;
+        this.objectMapper = objectMapper;
+
+        if (isBlank(overrideFile)) {
+            this.file = null;
+            this.watchService = null;
+            return;
+        }
+
+        this.file = Paths.get(overrideFile).toAbsolutePath();
+        if (!endpointPermissionService.reload(load())) {
+            throw new IllegalStateException(String.format("Arquivo de permissões inválido: %s", file));
+        }
+
+        this.watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+        final Thread watcher = new Thread(this::watch, "permission-override-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("Observando alterações no arquivo de permissões {}", file);
+    }
+
+    private PermissionOverrides load() throws IOException {
+        if (!Files.exists(file)) {
+            log.warn("Arquivo de permissões {} não encontrado. Usando apenas as anotações.", file);
+            return PermissionOverrides.none();
+        }
+        return objectMapper.readValue(file.toFile(), PermissionOverrides.class);
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                final WatchKey key = watchService.take();
+                boolean changed = false;
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    changed |= file.getFileName().equals(event.context());
+                }
+                key.reset();
+
+                if (changed) {
+                    // Editores costumam gerar vários eventos para uma única gravação
+                    Thread.sleep(DEBOUNCE_MILLIS);
+                    drainPendingEvents();
+                    reload();
+                }
+            }
+        } catch (final ClosedWatchServiceException | InterruptedException e) {
+            log.debug("Observação do arquivo de permissões encerrada");
+        }
+    }
+
+    private void drainPendingEvents() {
+        WatchKey pending;
+        while ((pending = watchService.poll()) != null) {
+            pending.pollEvents();
+            pending.reset();
+        }
+    }
+
+    private void reload() {
+        try {
+            endpointPermissionService.reload(load());
+        } catch (final IOException e) {
+            log.error("Não foi possível ler o arquivo de permissões {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * Conteúdo do arquivo externo de sobrescrita de permissões, aplicado por cima dos mapeamentos definidos nas anotações
+ * {@code @PreAuthorize}. Exemplo:
+ *
+ * <pre>
+ * {
+ *   "routes": { "/api/forms/{id}:DELETE": "hasRole('ADMIN')" },
+ *   "formTypes": { "OUVIDORIA": "PERM_OMINI_CHANEL_PERFIL_FORMS_CONTACT" }
+ * }
+ * </pre>
+ *
+ * <ul>
+ * <li><strong>routes:</strong> expressão no formato do {@code @PreAuthorize} por chave {@code caminho:método};</li>
+ * <li><strong>formTypes:</strong> nome do {@code WLRoles} usado para cada {@code FormTypeEnum}.</li>
+ * </ul>
+ */
+@Data
+public class PermissionOverrides {
+
+    private Map<String, String> routes = new LinkedHashMap<>();
+    private Map<String, String> formTypes = new LinkedHashMap<>();
+
+    /**
+     * Sobrescrita vazia, usada quando não há arquivo externo. Cada chamada cria uma nova instância, já que a classe é
+     * mutável.
+     */
+    public static PermissionOverrides none() {
+        return new PermissionOverrides();
+    }
+
+    public Map<String, String> getRoutes() {
+        return routes == null ? Collections.emptyMap() : routes;
+    }
+
+    public Map<String, String> getFormTypes() {
+        return formTypes == null ? Collections.emptyMap() : formTypes;
+    }
+
+}
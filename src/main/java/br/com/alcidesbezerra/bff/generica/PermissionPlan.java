@@ -0,0 +1,146 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Plano de permissão compilado a partir do valor de um {@code @PreAuthorize}. A expressão é interpretada uma única vez,
+ * na subida da aplicação, e o resultado pode ser:
+ *
+ * <ul>
+ * <li><strong>estático:</strong> as roles já ficam resolvidas, assim como o body do response;</li>
+ * <li><strong>dinâmico:</strong> a expressão usa {@code this.getPermission(#param)} e as roles dependem do tipo
+ * informado no caminho ou no body da requisição.</li>
+ * </ul>
+ *
+ * Expressões malformadas lançam {@link IllegalArgumentException} na compilação, impedindo a subida da aplicação.
+ */
+final class PermissionPlan {
+
+    static final String ROLES = "roles";
+
+    private static final String DYNAMIC_MARKER = "this.getPermission";
+    private static final Pattern DYNAMIC_PARAM = Pattern.compile("this\\.getPermission\\(#([^)]*)\\)");
+    private static final Pattern ROLE_DECORATION =
+        Pattern.compile("hasRole\\('|hasAnyRole\\('|hasAuthority\\('|hasPermission\\(|[{}'\"#user)]");
+    private static final Pattern ROLE_SEPARATOR = Pattern.compile("\\s*(or|and)\\s*|\\s*[,;]\\s*");
+
+    private final String expression;
+    private final String[] roles;
+    private final Map<String, Object> body;
+    private final String typeParam;
+    private final String pathToken;
+
+    private PermissionPlan(final String expression, final String[] roles, final String typeParam) {
+        this.expression = expression;
+        this.roles = roles;
+        this.body = roles == null
+            ? null
+            : Collections.singletonMap(ROLES, Collections.unmodifiableList(Arrays.asList(roles)));
+        this.typeParam = typeParam;
+        this.pathToken = typeParam == null ? null : "{" + typeParam + "}";
+    }
+
+    /**
+     * Compila a expressão do {@code @PreAuthorize} em um plano de permissão.
+     *
+     * @param expression Valor do {@code @PreAuthorize}
+     * @throws IllegalArgumentException Caso a expressão esteja malformada
+     */
+    static PermissionPlan compile(final String expression) {
+        if (isBlank(expression)) {
+            return new PermissionPlan(expression, new String[0], null);
+        }
+
+        if (!isBalanced(expression)) {
+            throw new IllegalArgumentException(String.format("Expressão de permissão malformada: %s", expression));
+        }
+
+        if (expression.contains(DYNAMIC_MARKER)) {
+            final Matcher matcher = DYNAMIC_PARAM.matcher(expression);
+            if (!matcher.find() || isBlank(matcher.group(1))) {
+                throw new IllegalArgumentException(
+                    String.format("Não foi possível extrair o parâmetro de tipo da expressão: %s", expression));
+            }
+            return new PermissionPlan(expression, null, matcher.group(1).trim());
+        }
+
+        return new PermissionPlan(expression, extractRoles(expression), null);
+    }
+
+    private static String[] extractRoles(final String expression) {
+        return Arrays.stream(ROLE_SEPARATOR.split(ROLE_DECORATION.matcher(expression).replaceAll("")))
+            .map(String::trim)
+            .filter(part -> !part.isEmpty())
+            .toArray(String[]::new);
+    }
+
+    private static boolean isBalanced(final String expression) {
+        int parentheses = 0;
+        boolean quoted = false;
+        for (int i = 0; i < expression.length(); i++) {
+            final char c = expression.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && c == '(') {
+                parentheses++;
+            } else if (!quoted && c == ')' && --parentheses < 0) {
+                return false;
+            }
+        }
+        return parentheses == 0 && !quoted;
+    }
+
+    /**
+     * Indica se as roles dependem do tipo informado na requisição.
+     */
+    boolean isDynamic() {
+        return typeParam != null;
+    }
+
+    /**
+     * Expressão original do {@code @PreAuthorize}.
+     */
+    String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Cópia das roles pré-calculadas de um plano estático. Para planos dinâmicos retorna {@code null}.
+     */
+    String[] getRoles() {
+        return roles == null ? null : roles.clone();
+    }
+
+    /**
+     * Body pronto do response de um plano estático, imutável. Para planos dinâmicos retorna {@code null}.
+     */
+    Map<String, Object> getBody() {
+        return body;
+    }
+
+    /**
+     * Nome do parâmetro de tipo de um plano dinâmico, por exemplo {@code type} em {@code this.getPermission(#type)}.
+     */
+    String getTypeParam() {
+        return typeParam;
+    }
+
+    /**
+     * Segmento de caminho que identifica a variável do tipo, por exemplo {@code {type}}.
+     */
+    String getPathToken() {
+        return pathToken;
+    }
+
+    @Override
+    public String toString() {
+        return isDynamic() ? String.format("dynamic(#%s)", typeParam) : Arrays.toString(roles);
+    }
+
+}
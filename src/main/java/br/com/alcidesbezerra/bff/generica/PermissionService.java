@@ -0,0 +1,73 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Cache assíncrono das permissões resolvidas pelo {@link EndpointPermissionService}.
+ *
+ * <br/><br/>Consultas simultâneas para a mesma chave compartilham uma única carga, entradas acessadas com frequência são
+ * recarregadas em background antes de expirar e as estatísticas do cache ficam disponíveis em {@link #getStats()}.
+ */
+@Service
+public class PermissionService {
+
+    private final EndpointPermissionService endpointPermissionService;
+    private final AsyncLoadingCache<PermissionKey, String[]> permissionsCache;
+
+    public PermissionService(final EndpointPermissionService endpointPermissionService,
+        @Value("${security.permission-cache.maximum-size:1000}") final long maximumSize,
+        @Value("${security.permission-cache.expire-after-write:PT1M}") final Duration expireAfterWrite,
+        @Value("${security.permission-cache.refresh-after-write:PT45S}") final Duration refreshAfterWrite) {
+        this.endpointPermissionService = endpointPermissionService;
+        this.permissionsCache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .refreshAfterWrite(refreshAfterWrite)
+            .recordStats()
+            .buildAsync(key -> endpointPermissionService.resolveRoles(key.getPath(), key.getMethod(), key.getBodyType()));
+    }
+
+    /**
+     * Obtém as roles do endpoint. Em caso de miss, apenas uma carga é feita por chave, mesmo com chamadas concorrentes.
+     * Cada chamada recebe uma cópia do array em cache.
+     *
+     * @param requestPath Caminho requisitado
+     * @param requestMethod Método HTTP
+     * @param bodyType Tipo informado no body, para rotas com permissão dinâmica. Pode ser {@code null}
+     */
+    public CompletableFuture<String[]> getPermissionsForEndpoint(final String requestPath, final String requestMethod,
+        final String bodyType) {
+        return permissionsCache
+            .get(new PermissionKey(endpointPermissionService.getVersion(), requestPath, requestMethod, bodyType))
+            .thenApply(String[]::clone);
+    }
+
+    /**
+     * Estatísticas do cache (hits, misses, cargas e tempo de carga).
+     */
+    public CacheStats getStats() {
+        return permissionsCache.synchronous().stats();
+    }
+
+    /**
+     * Chave composta do cache. Caminho, método e tipo são campos distintos, evitando colisões entre chaves
+     * concatenadas. A versão do índice de permissões faz parte da chave para que, após uma recarga, as entradas antigas
+     * deixem de ser usadas e apenas expirem.
+     */
+    @lombok.Value
+    static class PermissionKey {
+        long version;
+        String path;
+        String method;
+        String bodyType;
+    }
+
+}
@@ -0,0 +1,74 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Orçamento de retentativas compartilhado por todos os invokers. Cada chamada original deposita uma fração de
+ * ficha ({@link #RATIO}) e cada retentativa consome uma ficha inteira; sem fichas, a retentativa não é feita.
+ *
+ * <br/><br/>Assim, em condições normais, as retentativas ficam limitadas a cerca de 10% das chamadas e, durante uma
+ * indisponibilidade, não multiplicam a carga sobre o WebService que já está com problemas.
+ */
+public final class RetryBudget {
+
+    /**
+     * Fração de ficha depositada a cada chamada original.
+     */
+    public static final double RATIO = 0.1;
+
+    /**
+     * Quantidade máxima de fichas acumuladas, que permite uma rajada inicial de retentativas.
+     */
+    public static final int MAX_TOKENS = 10;
+
+    private static final long SCALE = 1_000;
+    private static final RetryBudget GLOBAL = new RetryBudget(RATIO, MAX_TOKENS);
+
+    private final long deposit;
+    private final long maximum;
+    private final AtomicLong balance;
+
+    RetryBudget(final double ratio, final int maxTokens) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.maximum = maxTokens * SCALE;
+        this.balance = new AtomicLong(maximum);
+    }
+
+    /**
+     * Orçamento global, compartilhado por todos os invokers.
+     */
+    public static RetryBudget global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Registra uma chamada original, depositando a sua fração de ficha.
+     */
+    void deposit() {
+        balance.accumulateAndGet(deposit, (current, value) -> Math.min(maximum, current + value));
+    }
+
+    /**
+     * Tenta consumir uma ficha para fazer uma retentativa.
+     *
+     * @return {@code true} se havia saldo para a retentativa
+     */
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * Quantidade de fichas disponíveis.
+     */
+    public double getTokens() {
+        return (double) balance.get() / SCALE;
+    }
+
+}
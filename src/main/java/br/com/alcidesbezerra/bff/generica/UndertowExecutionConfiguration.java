@@ -0,0 +1,63 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.undertow.servlet.api.DeploymentInfo;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Modo de execução das requisições no Undertow, indicado em {@code bff.execution-mode}:
+ *
+ * <ul>
+ * <li>{@code worker-pool} (padrão): as requisições rodam no pool fixo de workers do Undertow;</li>
+ * <li>{@code virtual-threads}: cada requisição roda em uma virtual thread, de forma que as chamadas bloqueantes aos
+ * WebServices não ocupem threads de plataforma. As operações RSA continuam limitadas aos processadores pelo
+ * {@link br.com.alcidesbezerra.bff.generica.security.CryptoExecutor}. Se o runtime não suportar virtual threads, volta
+ * para o pool de workers.</li>
+ * </ul>
+ */
+@Slf4j
+@Configuration
+public class UndertowExecutionConfiguration {
+
+    public enum ExecutionMode {
+        WORKER_POOL, VIRTUAL_THREADS
+    }
+
+    @Bean
+    WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowExecutionModeCustomizer(
+        @Value("${bff.execution-mode:worker-pool}") final ExecutionMode mode) {
+        return factory -> factory.addDeploymentInfoCustomizers(deploymentInfo -> apply(mode, deploymentInfo));
+    }
+
+    /**
+     * Configura o executor das requisições do deployment conforme o modo de execução.
+     *
+     * @return Executor de virtual threads configurado, ou {@code null} se as requisições ficarem no pool de workers
+     */
+    public static ExecutorService apply(final ExecutionMode mode, final DeploymentInfo deploymentInfo) {
+        if (mode != ExecutionMode.VIRTUAL_THREADS) {
+            log.info("Requisições executadas no pool de workers do Undertow");
+            return null;
+        }
+
+        final ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+        if (executor == null) {
+            log.warn("Virtual threads indisponíveis neste runtime. Requisições executadas no pool de workers do "
+                + "Undertow");
+            return null;
+        }
+
+        deploymentInfo.setExecutor(executor);
+        deploymentInfo.setAsyncExecutor(executor);
+        log.info("Requisições executadas em virtual threads");
+        return executor;
+    }
+
+}
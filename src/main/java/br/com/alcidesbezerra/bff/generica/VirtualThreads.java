@@ -0,0 +1,72 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Acesso às virtual threads (Java 21+) sem depender delas em tempo de compilação. Em runtimes anteriores,
+ * {@link #isSupported()} retorna {@code false} e nenhuma thread é considerada virtual.
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_PER_TASK_EXECUTOR;
+    private static final MethodHandle IS_VIRTUAL;
+
+    static {
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodHandle factory;
+        MethodHandle isVirtual;
+        try {
+            factory = lookup.findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                MethodType.methodType(ExecutorService.class));
+            isVirtual = lookup.findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (final ReflectiveOperationException e) {
+            factory = null;
+            isVirtual = null;
+        }
+        NEW_PER_TASK_EXECUTOR = factory;
+        IS_VIRTUAL = isVirtual;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Indica se o runtime suporta virtual threads.
+     */
+    public static boolean isSupported() {
+        return NEW_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Cria um executor com uma virtual thread por tarefa, ou retorna {@code null} se o runtime não suportar.
+     */
+    public static ExecutorService newPerTaskExecutor() {
+        if (NEW_PER_TASK_EXECUTOR == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) NEW_PER_TASK_EXECUTOR.invokeExact();
+        } catch (final Throwable e) {
+            throw new IllegalStateException("Não foi possível criar o executor de virtual threads", e);
+        }
+    }
+
+    /**
+     * Indica se a thread atual é uma virtual thread.
+     */
+    public static boolean isCurrentThreadVirtual() {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+        } catch (final Throwable e) {
+            return false;
+        }
+    }
+
+}
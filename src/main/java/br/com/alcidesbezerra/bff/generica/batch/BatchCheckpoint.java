@@ -0,0 +1,146 @@
+package br.com.alcidesbezerra.bff.generica.batch;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Posição do último bloco gravado de uma execução do batch: bytes consumidos da entrada, bytes gravados na saída e
+ * linhas processadas. É gravado ao lado do arquivo de saída ({@code <saída>.checkpoint}) após cada bloco, com
+ * substituição atômica, e removido ao fim da execução.
+ *
+ * <br/><br/>A identificação da execução ({@link #identity(BatchOptions)}) também é gravada, para que um checkpoint não
+ * seja aplicado a outra execução: todas as opções que afetam a saída e, da entrada, o tamanho, a data de alteração e
+ * o hash dos primeiros {@value #INPUT_PREFIX_SIZE} bytes.
+ */
+final class BatchCheckpoint {
+
+    static final BatchCheckpoint START = new BatchCheckpoint(0, 0, 0);
+
+    static final int INPUT_PREFIX_SIZE = 64 * 1024;
+
+    private final long inputOffset;
+    private final long outputOffset;
+    private final long rows;
+
+    BatchCheckpoint(final long inputOffset, final long outputOffset, final long rows) {
+        this.inputOffset = inputOffset;
+        this.outputOffset = outputOffset;
+        this.rows = rows;
+    }
+
+    static Path pathFor(final Path output) {
+        return output.resolveSibling(output.getFileName() + ".checkpoint");
+    }
+
+    /**
+     * Identificação da execução descrita por <code>options</code>, gravada no checkpoint e conferida na retomada.
+     */
+    static Map<String, String> identity(final BatchOptions options) throws IOException {
+        final Path input = options.getInput();
+        final byte[] prefix;
+        try (InputStream in = Files.newInputStream(input)) {
+            prefix = in.readNBytes(INPUT_PREFIX_SIZE);
+        }
+
+        final Map<String, String> identity = new LinkedHashMap<>();
+        identity.put("operation", options.getOperation().name());
+        identity.put("encrypted-input", Boolean.toString(options.isEncryptedInput()));
+        identity.put("delimiter", options.getDelimiter());
+        identity.put("column", Integer.toString(options.getColumn()));
+        identity.put("header", Boolean.toString(options.isHeader()));
+        identity.put("input-size", Long.toString(Files.size(input)));
+        identity.put("input-modified", Long.toString(Files.getLastModifiedTime(input).toMillis()));
+        identity.put("input-prefix-sha256", DigestUtils.sha256Hex(prefix));
+        return identity;
+    }
+
+    /**
+     * Lê o checkpoint da execução descrita por <code>options</code>.
+     *
+     * @param identity Identificação da execução atual ({@link #identity(BatchOptions)})
+     * @return O checkpoint, ou {@link #START} se não existir
+     * @throws IllegalStateException Se o checkpoint existir mas for de outra execução: outras opções ou entrada
+     * alterada.
+     */
+    static BatchCheckpoint read(final BatchOptions options, final Map<String, String> identity) throws IOException {
+        final Path path = pathFor(options.getOutput());
+        if (!Files.exists(path)) {
+            return START;
+        }
+
+        final Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+        }
+
+        final String differences = identity.entrySet().stream()
+            .filter(entry -> !entry.getValue().equals(properties.getProperty(entry.getKey())))
+            .map(entry -> String.format("%s: %s -> %s", entry.getKey(), properties.getProperty(entry.getKey()),
+                entry.getValue()))
+            .collect(Collectors.joining(", "));
+        if (!differences.isEmpty()) {
+            throw new IllegalStateException(String.format(
+                "O checkpoint %s é de outra execução (%s). Remova-o ou use --batch.resume=false", path, differences));
+        }
+
+        return new BatchCheckpoint(
+            Long.parseLong(properties.getProperty("input-offset")),
+            Long.parseLong(properties.getProperty("output-offset")),
+            Long.parseLong(properties.getProperty("rows")));
+    }
+
+    /**
+     * Grava o checkpoint, substituindo o anterior de forma atômica. O arquivo temporário é sincronizado com o disco
+     * antes da troca, para que uma queda não deixe um checkpoint vazio ou incompleto no lugar do anterior.
+     *
+     * @param identity Identificação da execução atual ({@link #identity(BatchOptions)})
+     */
+    void write(final BatchOptions options, final Map<String, String> identity) throws IOException {
+        final Properties properties = new Properties();
+        properties.putAll(identity);
+        properties.setProperty("input-offset", Long.toString(inputOffset));
+        properties.setProperty("output-offset", Long.toString(outputOffset));
+        properties.setProperty("rows", Long.toString(rows));
+
+        final Path path = pathFor(options.getOutput());
+        final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            properties.store(Channels.newOutputStream(channel), null);
+            channel.force(true);
+        }
+        Files.move(temp, path, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    static void delete(final BatchOptions options) throws IOException {
+        Files.deleteIfExists(pathFor(options.getOutput()));
+    }
+
+    long getInputOffset() {
+        return inputOffset;
+    }
+
+    long getOutputOffset() {
+        return outputOffset;
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+}
@@ -0,0 +1,44 @@
+package br.com.alcidesbezerra.bff.generica.batch;
+
+import br.com.alcidesbezerra.bff.generica.security.domain.SensitiveData;
+
+/**
+ * Operação aplicada pelo modo batch ao valor de cada linha, por meio dos métodos de {@link SensitiveData}.
+ */
+public enum BatchOperation {
+
+    /** Gera o valor criptografado ({@link SensitiveData#encrypt()}). */
+    ENCRYPT {
+        @Override
+        String apply(final SensitiveData data) {
+            return data.encrypt();
+        }
+    },
+
+    /** Gera o valor original ({@link SensitiveData#decrypt()}). */
+    DECRYPT {
+        @Override
+        String apply(final SensitiveData data) {
+            return data.decrypt();
+        }
+    },
+
+    /** Gera o valor mascarado ({@link SensitiveData#mask()}). */
+    MASK {
+        @Override
+        String apply(final SensitiveData data) {
+            return data.mask();
+        }
+    },
+
+    /** Gera o hash do valor ({@link SensitiveData#hash()}), usado como token. */
+    HASH {
+        @Override
+        String apply(final SensitiveData data) {
+            return data.hash();
+        }
+    };
+
+    abstract String apply(SensitiveData data);
+
+}
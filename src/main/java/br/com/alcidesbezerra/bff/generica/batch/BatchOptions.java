@@ -0,0 +1,155 @@
+package br.com.alcidesbezerra.bff.generica.batch;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Parâmetros do modo batch, informados na linha de comando:
+ *
+ * <pre>
+ * java -jar bff-generica.jar --batch.operation=decrypt --batch.input=export.csv --batch.output=export-claro.csv \
+ *     --batch.column=2 --batch.header=true
+ * </pre>
+ *
+ * <ul>
+ * <li>{@code batch.operation}: {@link BatchOperation} ({@code encrypt}, {@code decrypt}, {@code mask} ou
+ * {@code hash}). Sem ela, a aplicação sobe normalmente;</li>
+ * <li>{@code batch.input} e {@code batch.output}: arquivos de entrada e de saída;</li>
+ * <li>{@code batch.encrypted-input}: se o valor de entrada está criptografado. Padrão: {@code true} para
+ * {@code decrypt} e {@code false} para as demais;</li>
+ * <li>{@code batch.delimiter}: separador das colunas (padrão {@code ,}). Vazio para arquivos com um valor por
+ * linha;</li>
+ * <li>{@code batch.column}: índice, a partir de 0, da coluna com o valor (padrão 0);</li>
+ * <li>{@code batch.header}: se a primeira linha é cabeçalho e deve ser copiada sem alteração (padrão
+ * {@code false});</li>
+ * <li>{@code batch.chunk-size}: tamanho, em bytes, dos blocos lidos do arquivo (padrão 4 MiB);</li>
+ * <li>{@code batch.parallelism}: blocos processados em paralelo (padrão: processadores disponíveis);</li>
+ * <li>{@code batch.resume}: se deve continuar a partir do checkpoint de uma execução interrompida (padrão
+ * {@code true}).</li>
+ * </ul>
+ */
+public final class BatchOptions {
+
+    static final String OPERATION = "batch.operation";
+
+    private static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private final BatchOperation operation;
+    private final Path input;
+    private final Path output;
+    private final boolean encryptedInput;
+    private final String delimiter;
+    private final int column;
+    private final boolean header;
+    private final int chunkSize;
+    private final int parallelism;
+    private final boolean resume;
+
+    public BatchOptions(final BatchOperation operation, final Path input, final Path output,
+        final boolean encryptedInput, final String delimiter, final int column, final boolean header,
+        final int chunkSize, final int parallelism, final boolean resume) {
+        if (column < 0 || chunkSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException(String.format(
+                "Parâmetros inválidos para o batch: coluna %d, bloco de %d bytes, paralelismo %d",
+                column, chunkSize, parallelism));
+        }
+
+        this.operation = operation;
+        this.input = input;
+        this.output = output;
+        this.encryptedInput = encryptedInput;
+        this.delimiter = delimiter;
+        this.column = column;
+        this.header = header;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.resume = resume;
+    }
+
+    /**
+     * Indica se os argumentos da linha de comando pedem o modo batch.
+     */
+    public static boolean isRequested(final String... args) {
+        return Arrays.stream(args).anyMatch(arg -> arg.startsWith("--" + OPERATION + "="));
+    }
+
+    /**
+     * Lê os parâmetros do {@link Environment}.
+     *
+     * @return Os parâmetros, ou {@code null} se {@code batch.operation} não foi informado
+     */
+    public static BatchOptions from(final Environment environment) {
+        final String operation = environment.getProperty(OPERATION);
+        if (isBlank(operation)) {
+            return null;
+        }
+
+        final BatchOperation batchOperation = BatchOperation.valueOf(operation.trim().toUpperCase());
+        return new BatchOptions(
+            batchOperation,
+            requiredPath(environment, "batch.input"),
+            requiredPath(environment, "batch.output"),
+            environment.getProperty("batch.encrypted-input", Boolean.class,
+                batchOperation == BatchOperation.DECRYPT),
+            environment.getProperty("batch.delimiter", ","),
+            environment.getProperty("batch.column", Integer.class, 0),
+            environment.getProperty("batch.header", Boolean.class, false),
+            environment.getProperty("batch.chunk-size", Integer.class, DEFAULT_CHUNK_SIZE),
+            environment.getProperty("batch.parallelism", Integer.class, Runtime.getRuntime().availableProcessors()),
+            environment.getProperty("batch.resume", Boolean.class, true));
+    }
+
+    private static Path requiredPath(final Environment environment, final String property) {
+        final String path = environment.getProperty(property);
+        if (isBlank(path)) {
+            throw new IllegalArgumentException(String.format("Parâmetro obrigatório no modo batch: --%s", property));
+        }
+        return Paths.get(path);
+    }
+
+    public BatchOperation getOperation() {
+        return operation;
+    }
+
+    public Path getInput() {
+        return input;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    public boolean isEncryptedInput() {
+        return encryptedInput;
+    }
+
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public boolean isHeader() {
+        return header;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+}
@@ -0,0 +1,52 @@
+package br.com.alcidesbezerra.bff.generica.batch;
+
+import java.time.Duration;
+
+/**
+ * Resultado de uma execução do batch.
+ */
+public final class BatchReport {
+
+    private final long rows;
+    private final long resumedRows;
+    private final Duration elapsed;
+
+    BatchReport(final long rows, final long resumedRows, final Duration elapsed) {
+        this.rows = rows;
+        this.resumedRows = resumedRows;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Total de linhas do arquivo de saída, incluindo as processadas antes da retomada.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Linhas já processadas por uma execução anterior, recuperadas do checkpoint.
+     */
+    public long getResumedRows() {
+        return resumedRows;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Linhas por segundo processadas nesta execução.
+     */
+    public double getRowsPerSecond() {
+        final double seconds = elapsed.toNanos() / 1e9;
+        return seconds > 0 ? (rows - resumedRows) / seconds : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d linhas (%d retomadas do checkpoint) em %.1fs: %.0f linhas/s", rows, resumedRows,
+            elapsed.toNanos() / 1e9, getRowsPerSecond());
+    }
+
+}
@@ -0,0 +1,308 @@
+package br.com.alcidesbezerra.bff.generica.batch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.com.alcidesbezerra.bff.generica.security.domain.Cpf;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Aplica uma {@link BatchOperation} à coluna de CPF de um arquivo CSV, ou de um arquivo com um valor por linha,
+ * gerando um novo arquivo com as demais colunas inalteradas.
+ *
+ * <br/><br/>A entrada é lida por um {@link FileChannel} em blocos de {@link BatchOptions#getChunkSize()} bytes,
+ * cortados na última quebra de linha. Os blocos são processados em paralelo e gravados na ordem da entrada; no máximo
+ * {@code 2 * paralelismo} blocos ficam em memória ao mesmo tempo. Após gravar cada bloco, a saída é sincronizada no
+ * disco e o {@link BatchCheckpoint} é atualizado, de forma que uma execução interrompida pode ser retomada a partir
+ * do último bloco gravado.
+ *
+ * <br/><br/>As colunas são separadas apenas pelo delimitador; o valor da coluna processada pode estar entre aspas,
+ * mas não pode conter o delimitador. As quebras de linha da entrada ({@code \n} ou {@code \r\n}) são mantidas.
+ */
+@Slf4j
+public final class CsvBatchProcessor {
+
+    private static final long PROGRESS_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private final BatchOptions options;
+
+    private byte[] carry = new byte[0];
+    private boolean eof;
+    private long written;
+    private long rows;
+    private long lastProgress;
+
+    public CsvBatchProcessor(final BatchOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Processa o arquivo de entrada. Deve ser chamado uma única vez por instância.
+     *
+     * @throws IllegalStateException Se uma linha não puder ser processada. O checkpoint do último bloco gravado é
+     * mantido para a próxima execução.
+     */
+    public BatchReport run() throws IOException, InterruptedException {
+        final long started = System.nanoTime();
+        final Map<String, String> identity = BatchCheckpoint.identity(options);
+        final BatchCheckpoint checkpoint = options.isResume()
+            ? BatchCheckpoint.read(options, identity)
+            : BatchCheckpoint.START;
+        final long inputSize = Files.size(options.getInput());
+        if (checkpoint != BatchCheckpoint.START) {
+            log.info("Batch {} retomado a partir da linha {} (byte {} de {})", options.getOperation(),
+                checkpoint.getRows(), checkpoint.getInputOffset(), inputSize);
+        }
+
+        final ExecutorService pool = newPool(options.getParallelism());
+        try (FileChannel in = FileChannel.open(options.getInput(), READ);
+            FileChannel out = FileChannel.open(options.getOutput(), CREATE, WRITE)) {
+
+            in.position(checkpoint.getInputOffset());
+            out.truncate(checkpoint.getOutputOffset());
+            out.position(checkpoint.getOutputOffset());
+            written = checkpoint.getOutputOffset();
+            rows = checkpoint.getRows();
+            lastProgress = started;
+
+            final int maxInFlight = options.getParallelism() * 2;
+            final Deque<Future<Chunk>> inFlight = new ArrayDeque<>(maxInFlight);
+            boolean header = options.isHeader() && checkpoint.getInputOffset() == 0;
+            long inputOffset = checkpoint.getInputOffset();
+
+            byte[] block;
+            while ((block = nextBlock(in)) != null) {
+                final byte[] data = block;
+                final long blockStart = inputOffset;
+                final boolean blockHeader = header;
+                inputOffset += data.length;
+                final long blockEnd = inputOffset;
+                header = false;
+
+                inFlight.add(pool.submit(() -> process(data, blockStart, blockEnd, blockHeader)));
+                if (inFlight.size() >= maxInFlight) {
+                    write(inFlight.poll(), out, identity, inputSize, checkpoint.getRows(), started);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), out, identity, inputSize, checkpoint.getRows(), started);
+            }
+
+            out.force(true);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        BatchCheckpoint.delete(options);
+        final BatchReport report = new BatchReport(rows, checkpoint.getRows(),
+            Duration.ofNanos(System.nanoTime() - started));
+        log.info("Batch {} concluído: {}", options.getOperation(), report);
+        return report;
+    }
+
+    /**
+     * Lê o próximo bloco da entrada, terminado na última quebra de linha lida ou no fim do arquivo. Se uma linha for
+     * maior que o bloco, o bloco é aumentado até conter a linha inteira.
+     *
+     * @return O bloco, ou {@code null} no fim do arquivo
+     */
+    private byte[] nextBlock(final FileChannel in) throws IOException {
+        byte[] buffer = Arrays.copyOf(carry, carry.length + options.getChunkSize());
+        int filled = carry.length;
+
+        while (true) {
+            final ByteBuffer target = ByteBuffer.wrap(buffer, filled, buffer.length - filled);
+            while (target.hasRemaining() && !eof) {
+                eof = in.read(target) < 0;
+            }
+            filled = target.position();
+
+            if (eof) {
+                carry = new byte[0];
+                return filled == 0 ? null : Arrays.copyOf(buffer, filled);
+            }
+
+            final int lastLineEnd = lastIndexOf(buffer, (byte) '\n', filled);
+            if (lastLineEnd >= 0) {
+                carry = Arrays.copyOfRange(buffer, lastLineEnd + 1, filled);
+                return Arrays.copyOf(buffer, lastLineEnd + 1);
+            }
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+    }
+
+    /**
+     * Grava o bloco processado, sincroniza a saída e atualiza o checkpoint.
+     */
+    private void write(final Future<Chunk> future, final FileChannel out, final Map<String, String> identity,
+        final long inputSize, final long resumedRows, final long started) throws IOException, InterruptedException {
+        final Chunk chunk;
+        try {
+            chunk = future.get();
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(String.format(
+                "Batch %s interrompido após %d linhas gravadas. Execute novamente para continuar do checkpoint",
+                options.getOperation(), rows), e.getCause());
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(chunk.output);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        out.force(false);
+
+        written += chunk.output.length;
+        rows += chunk.rows;
+        new BatchCheckpoint(chunk.inputEnd, written, rows).write(options, identity);
+
+        final long now = System.nanoTime();
+        if (now - lastProgress >= PROGRESS_INTERVAL) {
+            lastProgress = now;
+            log.info("Batch {}: {} linhas, {}% da entrada, {} linhas/s", options.getOperation(), rows,
+                chunk.inputEnd * 100 / Math.max(inputSize, 1),
+                (rows - resumedRows) * TimeUnit.SECONDS.toNanos(1) / Math.max(now - started, 1));
+        }
+    }
+
+    /**
+     * Processa as linhas de um bloco.
+     */
+    private Chunk process(final byte[] data, final long inputStart, final long inputEnd, final boolean header) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(data.length * 2);
+        int processed = 0;
+        int lineNumber = 0;
+        int lineStart = 0;
+
+        while (lineStart < data.length) {
+            lineNumber++;
+            int lineEnd = indexOf(data, (byte) '\n', lineStart);
+            final int next = lineEnd < 0 ? data.length : lineEnd + 1;
+            lineEnd = lineEnd < 0 ? data.length : lineEnd;
+            final int contentEnd = lineEnd > lineStart && data[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+
+            if (header && lineNumber == 1) {
+                output.write(data, lineStart, next - lineStart);
+            } else {
+                try {
+                    final String line = new String(data, lineStart, contentEnd - lineStart, UTF_8);
+                    final byte[] converted = convertLine(line).getBytes(UTF_8);
+                    output.write(converted, 0, converted.length);
+                } catch (final Exception e) {
+                    throw new IllegalStateException(String.format(
+                        "Falha ao processar a linha %d do bloco iniciado no byte %d da entrada", lineNumber,
+                        inputStart), e);
+                }
+                output.write(data, contentEnd, next - contentEnd);
+                processed++;
+            }
+
+            lineStart = next;
+        }
+
+        return new Chunk(output.toByteArray(), processed, inputEnd);
+    }
+
+    private String convertLine(final String line) {
+        final String delimiter = options.getDelimiter();
+        if (delimiter.isEmpty()) {
+            return convertField(line);
+        }
+
+        int start = 0;
+        for (int i = 0; i < options.getColumn(); i++) {
+            final int index = line.indexOf(delimiter, start);
+            if (index < 0) {
+                throw new IllegalArgumentException(String.format("Linha com menos de %d colunas",
+                    options.getColumn() + 1));
+            }
+            start = index + delimiter.length();
+        }
+        final int index = line.indexOf(delimiter, start);
+        final int end = index < 0 ? line.length() : index;
+
+        return new StringBuilder(line.length() + 512)
+            .append(line, 0, start)
+            .append(convertField(line.substring(start, end)))
+            .append(line, end, line.length())
+            .toString();
+    }
+
+    private String convertField(final String field) {
+        if (field.length() >= 2 && field.charAt(0) == '"' && field.charAt(field.length() - 1) == '"') {
+            return '"' + convertValue(field.substring(1, field.length() - 1)) + '"';
+        }
+        return convertValue(field);
+    }
+
+    private String convertValue(final String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+
+        final String converted = options.getOperation().apply(new Cpf(value, options.isEncryptedInput()));
+        return converted == null ? "" : converted;
+    }
+
+    private static int indexOf(final byte[] data, final byte value, final int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(final byte[] data, final byte value, final int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ExecutorService newPool(final int threads) {
+        final AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, task -> {
+            final Thread thread = new Thread(task, "batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Bloco processado: saída, linhas convertidas e posição final na entrada.
+     */
+    private static final class Chunk {
+
+        private final byte[] output;
+        private final int rows;
+        private final long inputEnd;
+
+        private Chunk(final byte[] output, final int rows, final long inputEnd) {
+            this.output = output;
+            this.rows = rows;
+            this.inputEnd = inputEnd;
+        }
+    }
+
+}
@@ -35,19 +35,20 @@ public class Crypto {
 
     /**
      * Realiza a descriptografia do valor <code>value</code> utilizando a chave {@link PublicKey} do contexto do
-     * Spring.
+     * Spring. Em virtual threads, a operação é executada no {@link CryptoExecutor}.
      */
     public static String decrypt(final String value) throws GeneralSecurityException {
-        return new Crypto(Cipher.DECRYPT_MODE, value)
-            .with(SpringContextUtil.getBean(PublicKey.class));
+        return CryptoExecutor.execute(() -> new Crypto(Cipher.DECRYPT_MODE, value)
+            .with(SpringContextUtil.getBean(PublicKey.class)));
     }
 
     /**
      * Realiza a criptografia do valor <code>value</code> utilizando a chave {@link PrivateKey} do contexto do Spring.
+     * Em virtual threads, a operação é executada no {@link CryptoExecutor}.
      */
     public static String encrypt(final String value) throws GeneralSecurityException {
-        return new Crypto(Cipher.ENCRYPT_MODE, value)
-            .with(SpringContextUtil.getBean(PrivateKey.class));
+        return CryptoExecutor.execute(() -> new Crypto(Cipher.ENCRYPT_MODE, value)
+            .with(SpringContextUtil.getBean(PrivateKey.class)));
     }
 
     /**
@@ -0,0 +1,75 @@
+package br.com.alcidesbezerra.bff.generica.security;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.com.alcidesbezerra.bff.generica.VirtualThreads;
+
+/**
+ * Pool limitado de threads de plataforma para as operações RSA do {@link Crypto}.
+ *
+ * <br/><br/>Quando a requisição roda em uma virtual thread, a operação RSA, que usa CPU intensivamente, é executada
+ * neste pool e a virtual thread apenas aguarda o resultado. Assim as operações RSA simultâneas ficam limitadas à
+ * quantidade de processadores e não ocupam as carrier threads que atendem as chamadas bloqueantes. Em threads de
+ * plataforma (pool de workers do Undertow), a operação é executada na própria thread, que já faz parte de um pool
+ * limitado.
+ */
+public final class CryptoExecutor {
+
+    private static final ExecutorService POOL = newPool(Runtime.getRuntime().availableProcessors());
+
+    private CryptoExecutor() {
+    }
+
+    /**
+     * Operação de criptografia.
+     */
+    @FunctionalInterface
+    public interface CryptoTask<T> {
+        T call() throws GeneralSecurityException;
+    }
+
+    /**
+     * Executa a operação no pool de criptografia, se a thread atual for virtual, ou na própria thread.
+     */
+    public static <T> T execute(final CryptoTask<T> task) throws GeneralSecurityException {
+        if (!VirtualThreads.isCurrentThreadVirtual()) {
+            return task.call();
+        }
+
+        final Future<T> future = POOL.submit(task::call);
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new GeneralSecurityException("Operação de criptografia interrompida", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new GeneralSecurityException(cause);
+        }
+    }
+
+    private static ExecutorService newPool(final int size) {
+        final AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(size, runnable -> {
+            final Thread thread = new Thread(runnable, "crypto-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+}
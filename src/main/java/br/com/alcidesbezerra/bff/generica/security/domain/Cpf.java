@@ -18,6 +18,10 @@ public final class Cpf extends SensitiveData {
         super(data, isEncrypted);
     }
 
+    public Cpf(final String data, final boolean isEncrypted, final OffHeapArena arena) {
+        super(data, isEncrypted, arena);
+    }
+
     @Override
     public boolean isValid() {
         return StringUtils.isNumeric(get());
@@ -0,0 +1,305 @@
+package br.com.alcidesbezerra.bff.generica.security.domain;
+
+import java.lang.invoke.VarHandle;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Arena off-heap para os valores em claro de {@link SensitiveData}.
+ *
+ * <br/><br/>A memória é reservada em slabs de {@link ByteBuffer} diretos, divididos em slots de tamanho fixo por
+ * classe de tamanho (potências de 2, de {@value #MIN_SLOT_SIZE} a {@value #MAX_SLOT_SIZE} bytes). Um slot é
+ * identificado por um handle <code>long</code> (índice do slab e offset). Ao ser liberado, o slot é zerado e volta
+ * para a lista de livres da sua classe. Valores maiores que {@value #MAX_SLOT_SIZE} bytes não são aceitos.
+ *
+ * <br/><br/>Há dois tipos de arena:
+ * <ul>
+ * <li>{@link #shared()}: nunca é fechada. Cada valor registra um {@link Cleaner} que zera e libera o seu slot se o
+ * valor for coletado sem {@link SensitiveData#release()}, o que custa alguns objetos no heap por valor;</li>
+ * <li>{@link #open()}: arena com escopo, para lotes grandes (ex.: um result set). Os valores não registram
+ * {@link Cleaner}; {@link #close()} zera e solta todos os slabs de uma vez e o {@link Cleaner} da própria arena faz o
+ * mesmo se ela for coletada sem {@link #close()}. Após o fechamento, ler um valor da arena lança
+ * {@link IllegalStateException}.</li>
+ * </ul>
+ */
+public final class OffHeapArena implements AutoCloseable {
+
+    static final int MIN_SLOT_SIZE = 16;
+    static final int MAX_SLOT_SIZE = 1024;
+
+    private static final int DEFAULT_SLAB_SIZE = 1024 * 1024;
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final OffHeapArena SHARED = new OffHeapArena(DEFAULT_SLAB_SIZE, true);
+
+    private final int slabSize;
+    private final boolean shared;
+    private final SizeClass[] sizeClasses;
+    private final Slabs slabs = new Slabs();
+    private final Cleaner.Cleanable cleanable;
+
+    private OffHeapArena(final int slabSize, final boolean shared) {
+        if (slabSize < MAX_SLOT_SIZE || Integer.bitCount(slabSize) != 1) {
+            throw new IllegalArgumentException(String.format(
+                "O tamanho do slab deve ser potência de 2 e maior ou igual a %d: %d", MAX_SLOT_SIZE, slabSize));
+        }
+
+        this.slabSize = slabSize;
+        this.shared = shared;
+        this.sizeClasses = new SizeClass[Integer.numberOfTrailingZeros(MAX_SLOT_SIZE / MIN_SLOT_SIZE) + 1];
+        for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = new SizeClass(MIN_SLOT_SIZE << i);
+        }
+        this.cleanable = shared ? null : CLEANER.register(this, slabs::close);
+    }
+
+    /**
+     * Arena compartilhada, sem escopo. Os valores são liberados por {@link SensitiveData#release()} ou pelo
+     * {@link Cleaner} quando coletados.
+     */
+    public static OffHeapArena shared() {
+        return SHARED;
+    }
+
+    /**
+     * Abre uma arena com escopo, com slabs de 1 MiB.
+     */
+    public static OffHeapArena open() {
+        return open(DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Abre uma arena com escopo, com slabs de <code>slabSize</code> bytes (potência de 2).
+     */
+    public static OffHeapArena open(final int slabSize) {
+        return new OffHeapArena(slabSize, false);
+    }
+
+    /**
+     * Zera e solta todos os slabs. Chamadas repetidas não têm efeito.
+     *
+     * @throws UnsupportedOperationException Na arena {@link #shared()}.
+     */
+    @Override
+    public void close() {
+        if (shared) {
+            throw new UnsupportedOperationException("A arena compartilhada não pode ser fechada");
+        }
+        cleanable.clean();
+    }
+
+    boolean isShared() {
+        return shared;
+    }
+
+    boolean isClosed() {
+        return slabs.closed;
+    }
+
+    /**
+     * Registra no {@link Cleaner} a liberação do slot quando <code>owner</code> for coletado.
+     */
+    Cleaner.Cleanable track(final Object owner, final long handle, final int size) {
+        return CLEANER.register(owner, new Release(this, handle, size));
+    }
+
+    /**
+     * Reserva um slot com pelo menos <code>size</code> bytes e retorna o seu handle.
+     */
+    long allocate(final int size) {
+        return sizeClass(size).allocate();
+    }
+
+    /**
+     * Zera o slot e o devolve para a lista de livres. O <code>size</code> deve ser o mesmo informado na reserva. Não
+     * tem efeito se a arena já foi fechada.
+     */
+    void free(final long handle, final int size) {
+        final ByteBuffer[] current = slabs.current;
+        if (current.length == 0) {
+            return;
+        }
+
+        final SizeClass sizeClass = sizeClass(size);
+        final ByteBuffer slab = current[slabIndex(handle)];
+        final int offset = offset(handle);
+        for (int i = 0; i < sizeClass.slotSize; i++) {
+            slab.put(offset + i, (byte) 0);
+        }
+        sizeClass.release(handle);
+    }
+
+    /**
+     * Copia os <code>length</code> primeiros bytes de <code>src</code> para o slot. O fence garante que os bytes
+     * estejam visíveis para as threads que receberem o handle depois da escrita.
+     */
+    void write(final long handle, final byte[] src, final int length) {
+        final ByteBuffer slab = slab(handle);
+        final int offset = offset(handle);
+        for (int i = 0; i < length; i++) {
+            slab.put(offset + i, src[i]);
+        }
+        VarHandle.releaseFence();
+    }
+
+    /**
+     * Copia os <code>length</code> primeiros bytes do slot para <code>dst</code>.
+     */
+    void read(final long handle, final byte[] dst, final int length) {
+        VarHandle.acquireFence();
+        final ByteBuffer slab = slab(handle);
+        final int offset = offset(handle);
+        for (int i = 0; i < length; i++) {
+            dst[i] = slab.get(offset + i);
+        }
+    }
+
+    byte get(final long handle, final int index) {
+        VarHandle.acquireFence();
+        return slab(handle).get(offset(handle) + index);
+    }
+
+    /**
+     * Total de memória off-heap reservada pela arena, em bytes.
+     */
+    public long getReservedBytes() {
+        return (long) slabs.current.length * slabSize;
+    }
+
+    /**
+     * Total de bytes em slots atualmente em uso.
+     */
+    public long getUsedBytes() {
+        if (slabs.current.length == 0) {
+            return 0;
+        }
+
+        long used = 0;
+        for (final SizeClass sizeClass : sizeClasses) {
+            used += sizeClass.usedBytes();
+        }
+        return used;
+    }
+
+    private SizeClass sizeClass(final int size) {
+        if (size < 0 || size > MAX_SLOT_SIZE) {
+            throw new IllegalArgumentException(String.format(
+                "Valor com %d bytes excede o tamanho máximo de %d bytes da arena off-heap", size, MAX_SLOT_SIZE));
+        }
+        final int slotSize = Math.max(MIN_SLOT_SIZE, Integer.highestOneBit(Math.max(size, 1) * 2 - 1));
+        return sizeClasses[Integer.numberOfTrailingZeros(slotSize / MIN_SLOT_SIZE)];
+    }
+
+    private ByteBuffer slab(final long handle) {
+        final ByteBuffer[] current = slabs.current;
+        if (current.length == 0) {
+            throw new IllegalStateException("A arena off-heap já foi fechada");
+        }
+        return current[slabIndex(handle)];
+    }
+
+    private static int slabIndex(final long handle) {
+        return (int) (handle >>> 32);
+    }
+
+    private static int offset(final long handle) {
+        return (int) handle;
+    }
+
+    /**
+     * Slabs da arena. Fica separado da arena para que a ação do {@link Cleaner} não a referencie.
+     */
+    private static final class Slabs {
+
+        private volatile ByteBuffer[] current = new ByteBuffer[0];
+        private volatile boolean closed;
+
+        private synchronized int add(final int slabSize) {
+            if (closed) {
+                throw new IllegalStateException("A arena off-heap já foi fechada");
+            }
+            final ByteBuffer[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = ByteBuffer.allocateDirect(slabSize);
+            current = grown;
+            return current.length - 1;
+        }
+
+        private synchronized void close() {
+            closed = true;
+            final ByteBuffer[] closing = current;
+            current = new ByteBuffer[0];
+            for (final ByteBuffer slab : closing) {
+                for (int i = 0; i < slab.capacity(); i++) {
+                    slab.put(i, (byte) 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Liberação de um slot pelo {@link Cleaner}. Não referencia o dono do slot, para não impedir a sua coleta.
+     */
+    private static final class Release implements Runnable {
+
+        private final OffHeapArena arena;
+        private final long handle;
+        private final int size;
+
+        private Release(final OffHeapArena arena, final long handle, final int size) {
+            this.arena = arena;
+            this.handle = handle;
+            this.size = size;
+        }
+
+        @Override
+        public void run() {
+            arena.free(handle, size);
+        }
+    }
+
+    /**
+     * Slots de um mesmo tamanho: lista de livres e posição de alocação no slab atual.
+     */
+    private final class SizeClass {
+
+        private final int slotSize;
+
+        private long[] free = new long[16];
+        private int freeCount;
+        private int slab = -1;
+        private int next;
+        private long allocated;
+
+        private SizeClass(final int slotSize) {
+            this.slotSize = slotSize;
+        }
+
+        private synchronized long allocate() {
+            if (freeCount > 0) {
+                allocated++;
+                return free[--freeCount];
+            }
+            if (slab < 0 || next + slotSize > slabSize) {
+                slab = slabs.add(slabSize);
+                next = 0;
+            }
+            allocated++;
+            final long handle = ((long) slab << 32) | next;
+            next += slotSize;
+            return handle;
+        }
+
+        private synchronized void release(final long handle) {
+            allocated--;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, free.length * 2);
+            }
+            free[freeCount++] = handle;
+        }
+
+        private synchronized long usedBytes() {
+            return allocated * slotSize;
+        }
+    }
+
+}
@@ -0,0 +1,213 @@
+package br.com.alcidesbezerra.bff.generica.security.domain;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_16BE;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.lang.ref.Cleaner;
+import java.lang.ref.Reference;
+import java.util.Arrays;
+
+/**
+ * Texto guardado em um slot de uma {@link OffHeapArena}. No heap ficam apenas a arena, o handle e o tamanho.
+ *
+ * <br/><br/>O conteúdo é gravado em Latin-1 quando todos os caracteres cabem em um byte (caso dos CPFs) e em UTF-16
+ * nos demais casos. O slot é zerado e devolvido à arena em {@link #release()}; na arena compartilhada, se o objeto for
+ * coletado antes disso, pelo {@link Cleaner}. Após a liberação, qualquer leitura lança {@link IllegalStateException}.
+ *
+ * <br/><br/>As leituras e a liberação são sincronizadas no próprio objeto: um slot nunca é devolvido à arena (e
+ * reaproveitado por outro valor) enquanto está sendo lido.
+ *
+ * <br/><br/>Na serialização o texto é gravado em claro e, na leitura, copiado para a arena compartilhada.
+ */
+final class OffHeapText implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient OffHeapArena arena;
+    private final transient long handle;
+    private final transient short size;
+    private final transient boolean utf16;
+    private final transient int hash;
+    private final transient Cleaner.Cleanable cleanable;
+
+    private transient volatile boolean released;
+
+    private OffHeapText(final OffHeapArena arena, final byte[] bytes, final boolean utf16, final int hash) {
+        this.arena = arena;
+        this.size = (short) bytes.length;
+        this.utf16 = utf16;
+        this.hash = hash;
+        this.handle = arena.allocate(bytes.length);
+        arena.write(handle, bytes, bytes.length);
+        this.cleanable = arena.isShared() ? arena.track(this, handle, size) : null;
+    }
+
+    /**
+     * Copia o texto para um slot da arena. O array intermediário é zerado antes do retorno.
+     */
+    static OffHeapText of(final OffHeapArena arena, final String text) {
+        final boolean utf16 = !isLatin1(text);
+        final byte[] bytes = text.getBytes(utf16 ? UTF_16BE : ISO_8859_1);
+        try {
+            return new OffHeapText(arena, bytes, utf16, text.hashCode());
+        } finally {
+            Arrays.fill(bytes, (byte) 0);
+        }
+    }
+
+    /**
+     * Cria uma nova String com o conteúdo. A String não é mantida por esta classe.
+     */
+    synchronized String materialize() {
+        final byte[] bytes = new byte[size];
+        try {
+            ensureLive();
+            arena.read(handle, bytes, size);
+            return new String(bytes, utf16 ? UTF_16BE : ISO_8859_1);
+        } finally {
+            Arrays.fill(bytes, (byte) 0);
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    /**
+     * Zera o slot e o devolve à arena. Chamadas repetidas não têm efeito.
+     */
+    synchronized void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        if (cleanable != null) {
+            cleanable.clean();
+        } else {
+            arena.free(handle, size);
+        }
+    }
+
+    /**
+     * Indica se o conteúdo ainda pode ser lido: não foi liberado e a arena não foi fechada.
+     */
+    boolean isReadable() {
+        return !released && !arena.isClosed();
+    }
+
+    synchronized boolean contentEquals(final String other) {
+        try {
+            ensureLive();
+            if (other.length() != length()) {
+                return false;
+            }
+            for (int i = 0; i < length(); i++) {
+                if (charAt(i) != other.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    /**
+     * Compara o conteúdo com o de outro texto. Os bytes do outro são copiados sob o monitor dele e comparados sob o
+     * monitor deste, sem segurar os dois ao mesmo tempo. Como a codificação é sempre a mesma para o mesmo texto
+     * (Latin-1 quando possível), comparar os bytes equivale a comparar os caracteres.
+     */
+    boolean contentEquals(final OffHeapText other) {
+        if (other.hash != hash || other.size != size || other.utf16 != utf16) {
+            return false;
+        }
+
+        final byte[] bytes = other.copy();
+        try {
+            return sameBytes(bytes);
+        } finally {
+            Arrays.fill(bytes, (byte) 0);
+        }
+    }
+
+    /**
+     * Mesmo valor de {@link String#hashCode()} para o conteúdo, calculado na criação. Continua disponível após a
+     * liberação.
+     */
+    int contentHashCode() {
+        return hash;
+    }
+
+    private synchronized byte[] copy() {
+        final byte[] bytes = new byte[size];
+        try {
+            ensureLive();
+            arena.read(handle, bytes, size);
+            return bytes;
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    private synchronized boolean sameBytes(final byte[] bytes) {
+        try {
+            ensureLive();
+            for (int i = 0; i < size; i++) {
+                if (arena.get(handle, i) != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    private int length() {
+        return utf16 ? size / 2 : size;
+    }
+
+    private char charAt(final int index) {
+        if (!utf16) {
+            return (char) (arena.get(handle, index) & 0xff);
+        }
+        return (char) (((arena.get(handle, index * 2) & 0xff) << 8) | (arena.get(handle, index * 2 + 1) & 0xff));
+    }
+
+    private void ensureLive() {
+        if (released) {
+            throw new IllegalStateException("O valor sensível já foi liberado");
+        }
+    }
+
+    private static boolean isLatin1(final String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xff) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return new SerializedForm(materialize());
+    }
+
+    /**
+     * Forma serializada do {@link OffHeapText}.
+     */
+    private static final class SerializedForm implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String text;
+
+        private SerializedForm(final String text) {
+            this.text = text;
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            return OffHeapText.of(OffHeapArena.shared(), text);
+        }
+    }
+
+}
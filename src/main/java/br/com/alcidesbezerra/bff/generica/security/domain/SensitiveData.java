@@ -5,12 +5,14 @@ import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import br.com.alcidesbezerra.bff.generica.security.Crypto;
-import lombok.EqualsAndHashCode;
+import br.com.alcidesbezerra.bff.generica.security.logging.SensitiveLogMode;
+import br.com.alcidesbezerra.bff.generica.security.logging.SensitiveLogging;
 import lombok.SneakyThrows;
 
 /**
@@ -32,14 +34,20 @@ import lombok.SneakyThrows;
  *
  * Esta classe também sobrescreve o método {@link String#toString()} e o define como <code>final</code>, visando
  * garantir que nenhuma de suas extensões modifique este comportamento e acabe exibindo o valor original de forma
- * indevida. O resultado do método será sempre no formato <strong>SimpleName[value]</strong>.
+ * indevida. O resultado do método será sempre no formato <strong>SimpleName[value]</strong>, com o hash ou o valor
+ * mascarado conforme {@link SensitiveLogging#getMode()}; no modo de máscara, nenhum hash é calculado.
+ *
+ * <br/><br/>Quando criado com uma {@link OffHeapArena}, o valor original fica em um slot da arena e não como uma
+ * String no heap: {@link #get()} cria uma nova String a cada chamada e {@link #release()} zera e libera o slot. Sem
+ * {@link #release()}, o slot é zerado quando a arena é fechada ou, na {@link OffHeapArena#shared() arena
+ * compartilhada}, quando a instância é coletada.
  */
-@EqualsAndHashCode(of = "value")
 public abstract class SensitiveData implements EncryptedData, HashedData, MaskedData, Serializable {
 
     private static final long serialVersionUID = 9042409702621832579L;
 
     private final String value;
+    private final OffHeapText offHeapValue;
 
     private String encryptedValue;
     private String hashedValue;
@@ -52,13 +60,34 @@ public abstract class SensitiveData implements EncryptedData, HashedData, Masked
      * @param value O valor original ou criptografado.
      * @param isEncrypted <strong>true</strong> se o valor está criptografado; <strong>false</strong> senão.
      */
-    @SneakyThrows
     public  SensitiveData(final String value, final boolean isEncrypted) {
+        this(value, isEncrypted, null);
+    }
+
+    /**
+     * Cria uma instância de dado sensível indicando se o valor é o original ou criptografado, mantendo o valor original
+     * na arena off-heap informada. Se for criptografado, realiza neste momento a descriptografia.
+     *
+     * @param value O valor original ou criptografado.
+     * @param isEncrypted <strong>true</strong> se o valor está criptografado; <strong>false</strong> senão.
+     * @param arena Arena onde o valor original é mantido; se <code>null</code>, o valor fica no heap.
+     */
+    @SneakyThrows
+    public  SensitiveData(final String value, final boolean isEncrypted, final OffHeapArena arena) {
+        final String plain;
         if (isEncrypted) {
             this.encryptedValue = value;
-            this.value = doDecrypt(value);
+            plain = doDecrypt(value);
         } else {
-            this.value = formatValue(value);
+            plain = formatValue(value);
+        }
+
+        if (nonNull(arena) && nonNull(plain)) {
+            this.value = null;
+            this.offHeapValue = OffHeapText.of(arena, plain);
+        } else {
+            this.value = plain;
+            this.offHeapValue = null;
         }
     }
 
@@ -81,21 +110,47 @@ public abstract class SensitiveData implements EncryptedData, HashedData, Masked
         return nonNull(get());
     }
 
+    /**
+     * Retorna o valor original. Se mantido off-heap, cria uma nova String a cada chamada.
+     *
+     * @throws IllegalStateException Se o valor off-heap já foi liberado ou a sua arena fechada.
+     */
     @Override
     public final String get() {
-        return value;
+        return nonNull(offHeapValue) ? offHeapValue.materialize() : value;
     }
 
     @Override
     public final String decrypt() {
-        return value;
+        return get();
+    }
+
+    /**
+     * Zera e libera o valor original mantido off-heap. Antes da liberação, o hash e o valor mascarado são calculados
+     * (se ainda não foram), para que <code>toString()</code> e <code>hashCode()</code> continuem funcionando; o valor
+     * criptografado só fica disponível se já tiver sido calculado. Depois, {@link #get()} passa a lançar
+     * {@link IllegalStateException} e a instância só é igual a si mesma. Não tem efeito se o valor está no heap.
+     */
+    public final void release() {
+        if (nonNull(offHeapValue) && offHeapValue.isReadable()) {
+            hash();
+            mask();
+            offHeapValue.release();
+        }
+    }
+
+    /**
+     * Indica se o valor original é mantido off-heap.
+     */
+    public final boolean isOffHeap() {
+        return nonNull(offHeapValue);
     }
 
     @Override
     @SneakyThrows
     public final String encrypt() {
         if (isNull(encryptedValue)) {
-            encryptedValue = ofNullable(value)
+            encryptedValue = ofNullable(get())
                 .map(SensitiveData::doEncrypt)
                 .orElse(null);
         }
@@ -116,7 +171,7 @@ public abstract class SensitiveData implements EncryptedData, HashedData, Masked
     @Override
     public final String hash() {
         if (isNull(hashedValue)) {
-            hashedValue = ofNullable(value)
+            hashedValue = ofNullable(get())
                 .map(DigestUtils::md5Hex)
                 .orElse(null);
         }
@@ -127,7 +182,7 @@ public abstract class SensitiveData implements EncryptedData, HashedData, Masked
     @Override
     public final String mask() {
         if (isNull(maskedValue)) {
-            maskedValue = ofNullable(value)
+            maskedValue = ofNullable(get())
                 .map(val -> {
                     final int maskSize = val.length() - unmaskSize();
                     return StringUtils.overlay(val, StringUtils.repeat("*", maskSize), 0, maskSize);
@@ -138,9 +193,63 @@ public abstract class SensitiveData implements EncryptedData, HashedData, Masked
         return maskedValue;
     }
 
+    /**
+     * Compara os valores originais. Um valor off-heap liberado (ou de arena fechada) não pode mais ser comparado e só é
+     * igual a si mesmo; o <code>hashCode()</code> continua o mesmo após a liberação.
+     */
+    @Override
+    public boolean equals(final Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof SensitiveData)) {
+            return false;
+        }
+
+        final SensitiveData other = (SensitiveData) o;
+        if (isReleased() || other.isReleased()) {
+            return false;
+        }
+        if (nonNull(offHeapValue)) {
+            return nonNull(other.offHeapValue)
+                ? offHeapValue.contentEquals(other.offHeapValue)
+                : nonNull(other.value) && offHeapValue.contentEquals(other.value);
+        }
+        if (nonNull(other.offHeapValue)) {
+            return nonNull(value) && other.offHeapValue.contentEquals(value);
+        }
+        return Objects.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        final int valueHash;
+        if (nonNull(offHeapValue)) {
+            valueHash = offHeapValue.contentHashCode();
+        } else {
+            valueHash = isNull(value) ? 43 : value.hashCode();
+        }
+        return 59 + valueHash;
+    }
+
+    /**
+     * Gera <strong>SimpleName[value]</strong> conforme {@link SensitiveLogging#getMode()}. Se o valor off-heap não
+     * pode mais ser lido (arena fechada sem {@link #release()}) e o valor do modo não foi calculado antes, gera
+     * <strong>SimpleName[released]</strong>.
+     */
     @Override
     public final String toString() {
-        return String.format("%s[%s]", getClass().getSimpleName(), hash());
+        if (isReleased()) {
+            final String cached = SensitiveLogging.getMode() == SensitiveLogMode.MASK ? maskedValue : hashedValue;
+            if (isNull(cached)) {
+                return getClass().getSimpleName() + "[released]";
+            }
+        }
+        return SensitiveLogging.render(this);
+    }
+
+    private boolean isReleased() {
+        return nonNull(offHeapValue) && !offHeapValue.isReadable();
     }
 
 }
\ No newline at end of file
@@ -4,25 +4,67 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import br.com.alcidesbezerra.bff.generica.security.domain.ErrorType;
-import lombok.Getter;
+import br.com.alcidesbezerra.bff.generica.security.domain.Message;
 
-@Getter
 public abstract class AbstractErrorException extends RuntimeException {
 
     private static final long serialVersionUID = -8004100005407012963L;
 
-    private final Map<String, String> details;
+    private final Message code;
+    private volatile Map<String, String> details;
 
     public AbstractErrorException(String msg) {
         super(msg);
-        details = new ConcurrentHashMap<>();
+        this.code = null;
     }
 
     public AbstractErrorException(String msg, Throwable th) {
         super(msg, th);
-        details = new ConcurrentHashMap<>();
+        this.code = null;
+    }
+
+    /**
+     * @param code Mensagem padronizada do erro, que também é usada como mensagem da exception
+     * @param writableStackTrace Se {@code false}, a exception não captura o stack trace nem aceita exceptions
+     * suprimidas. Indicado para erros de validação esperados, em que o stack trace não tem utilidade
+     */
+    protected AbstractErrorException(Message code, boolean writableStackTrace) {
+        super(code.getMessage(), null, writableStackTrace, writableStackTrace);
+        this.code = code;
     }
 
     public abstract ErrorType getErrorType();
 
+    /**
+     * Mensagem padronizada do erro, ou {@code null} se a exception foi criada com uma mensagem livre.
+     */
+    public Message getCode() {
+        return code;
+    }
+
+    /**
+     * Detalhes do erro. O mapa é criado apenas na primeira chamada, já que a maioria dos erros não tem detalhes.
+     */
+    public Map<String, String> getDetails() {
+        Map<String, String> current = details;
+        if (current == null) {
+            synchronized (this) {
+                current = details;
+                if (current == null) {
+                    current = new ConcurrentHashMap<>();
+                    details = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Indica se algum detalhe foi informado, sem criar o mapa de detalhes.
+     */
+    public boolean hasDetails() {
+        final Map<String, String> current = details;
+        return current != null && !current.isEmpty();
+    }
+
 }
@@ -1,6 +1,7 @@
 package br.com.alcidesbezerra.bff.generica.security.exception;
 
 import br.com.alcidesbezerra.bff.generica.security.domain.ErrorType;
+import br.com.alcidesbezerra.bff.generica.security.domain.Message;
 public class ClientErrorException extends AbstractErrorException {
 
     private static final long serialVersionUID = 1486297407038116871L;
@@ -17,6 +18,23 @@ public class ClientErrorException extends AbstractErrorException {
         this.errorType = errorType;
     }
 
+    public ClientErrorException(ErrorType errorType, Message message) {
+        this(errorType, message, true);
+    }
+
+    private ClientErrorException(ErrorType errorType, Message message, boolean writableStackTrace) {
+        super(message, writableStackTrace);
+        this.errorType = errorType;
+    }
+
+    /**
+     * Cria a exception sem stack trace, para erros de validação de rotina (ex.: {@link Message#CPF_INVALIDO}) em que o
+     * custo de capturar o stack trace domina o tempo de rejeitar a requisição.
+     */
+    public static ClientErrorException stackless(ErrorType errorType, Message message) {
+        return new ClientErrorException(errorType, message, false);
+    }
+
     @Override
     public ErrorType getErrorType() {
         return errorType;
@@ -0,0 +1,79 @@
+package br.com.alcidesbezerra.bff.generica.security.exception;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.alcidesbezerra.bff.generica.security.domain.ErrorType;
+import br.com.alcidesbezerra.bff.generica.security.domain.Message;
+
+/**
+ * Gera o body JSON dos responses de erro:
+ *
+ * <pre>
+ * {"type":"VALIDATION","code":"CPF_INVALIDO","message":"cpf.invalido","details":{...}}
+ * </pre>
+ *
+ * Os bodies de todas as combinações de {@link ErrorType} e {@link Message} são gerados uma única vez, na subida da
+ * aplicação; um erro com {@code code} e sem detalhes apenas reaproveita o body pronto. Os demais são gerados a cada
+ * chamada.
+ */
+@Component
+public class ErrorBodyRenderer {
+
+    private final ObjectMapper objectMapper;
+    private final Map<ErrorType, Map<Message, byte[]>> rendered = new EnumMap<>(ErrorType.class);
+
+    public ErrorBodyRenderer(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (final ErrorType errorType : ErrorType.values()) {
+            final Map<Message, byte[]> bodies = new EnumMap<>(Message.class);
+            for (final Message message : Message.values()) {
+                bodies.put(message, write(errorType, message, message.getMessage(), null));
+            }
+            rendered.put(errorType, bodies);
+        }
+    }
+
+    /**
+     * Body do response de erro da exception. O array retornado pode ser compartilhado e não deve ser alterado.
+     */
+    public byte[] render(final AbstractErrorException e) {
+        if (e.getCode() != null && !e.hasDetails()) {
+            return rendered.get(e.getErrorType()).get(e.getCode());
+        }
+        return write(e.getErrorType(), e.getCode(), e.getMessage(), e.hasDetails() ? e.getDetails() : null);
+    }
+
+    private byte[] write(final ErrorType errorType, final Message code, final String message,
+        final Map<String, String> details) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", errorType.name());
+            if (code != null) {
+                generator.writeStringField("code", code.name());
+            }
+            generator.writeStringField("message", message);
+            if (details != null) {
+                generator.writeObjectFieldStart("details");
+                for (final Map.Entry<String, String> detail : details.entrySet()) {
+                    generator.writeStringField(detail.getKey(), detail.getValue());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+}
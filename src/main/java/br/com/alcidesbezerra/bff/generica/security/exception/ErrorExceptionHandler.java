@@ -0,0 +1,37 @@
+package br.com.alcidesbezerra.bff.generica.security.exception;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Converte as {@link AbstractErrorException}s lançadas pelos controllers no response de erro, com o status do
+ * {@code ErrorType} e o body do {@link ErrorBodyRenderer}.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ErrorExceptionHandler {
+
+    private final ErrorBodyRenderer errorBodyRenderer;
+
+    public ErrorExceptionHandler(final ErrorBodyRenderer errorBodyRenderer) {
+        this.errorBodyRenderer = errorBodyRenderer;
+    }
+
+    @ExceptionHandler(AbstractErrorException.class)
+    public ResponseEntity<byte[]> handle(final AbstractErrorException e) {
+        if (e.getErrorType().getHttpStatus().is5xxServerError()) {
+            log.error("Erro ao processar a requisição: {}", e.getMessage(), e);
+        } else {
+            log.debug("Requisição rejeitada: {} {}", e.getErrorType(), e.getMessage());
+        }
+
+        return ResponseEntity.status(e.getErrorType().getHttpStatus())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(errorBodyRenderer.render(e));
+    }
+
+}
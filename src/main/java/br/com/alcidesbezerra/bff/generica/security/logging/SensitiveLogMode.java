@@ -0,0 +1,36 @@
+package br.com.alcidesbezerra.bff.generica.security.logging;
+
+import br.com.alcidesbezerra.bff.generica.security.domain.SensitiveData;
+
+/**
+ * Forma como um {@link SensitiveData} aparece nos logs e no seu <code>toString()</code>, configurada em
+ * {@code security.sensitive-data.log-mode}.
+ */
+public enum SensitiveLogMode {
+
+    /** Valor mascarado ({@link SensitiveData#mask()}), sem cálculo de digest. */
+    MASK {
+        @Override
+        String value(final SensitiveData data) {
+            return data.mask();
+        }
+    },
+
+    /** Hash do valor ({@link SensitiveData#hash()}). Padrão. */
+    HASH {
+        @Override
+        String value(final SensitiveData data) {
+            return data.hash();
+        }
+    };
+
+    abstract String value(SensitiveData data);
+
+    /**
+     * Gera a representação <strong>SimpleName[valor]</strong> do dado.
+     */
+    public String render(final SensitiveData data) {
+        return data.getClass().getSimpleName() + '[' + value(data) + ']';
+    }
+
+}
@@ -0,0 +1,79 @@
+package br.com.alcidesbezerra.bff.generica.security.logging;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import br.com.alcidesbezerra.bff.generica.security.domain.SensitiveData;
+
+/**
+ * Modo de exibição dos {@link SensitiveData} no seu <code>toString()</code> e, portanto, nos logs, lido de
+ * {@code security.sensitive-data.log-mode} ({@code hash} ou {@code mask}). O modo fica em um campo estático porque os
+ * dados não estão no contexto do Spring. Até o contexto subir, vale {@link SensitiveLogMode#HASH}; quando o contexto é
+ * fechado, volta o modo anterior, para que não passe de um contexto para outro (ex.: nos testes).
+ *
+ * <br/><br/>Passado como argumento de uma mensagem ({@code log.debug("CPF {}", cpf)}), o dado só é convertido pelo
+ * layout, quando o evento vai ser gravado: em eventos descartados por nível ou filtro nenhum hash é calculado. Mensagens
+ * montadas com concatenação, {@code String.format} ou com o <code>toString()</code> de um DTO que contém o dado devem
+ * ser passadas pelo {@link #lazy(Supplier)}, que adia a montagem da mesma forma.
+ */
+@Component
+public class SensitiveLogging implements DisposableBean {
+
+    private static volatile SensitiveLogMode mode = SensitiveLogMode.HASH;
+
+    private final SensitiveLogMode previous;
+
+    public SensitiveLogging(@Value("${security.sensitive-data.log-mode:hash}") final SensitiveLogMode mode) {
+        this.previous = getMode();
+        setMode(mode);
+    }
+
+    public static SensitiveLogMode getMode() {
+        return mode;
+    }
+
+    public static void setMode(final SensitiveLogMode mode) {
+        SensitiveLogging.mode = mode;
+    }
+
+    /**
+     * Gera a representação do dado conforme o modo configurado.
+     */
+    public static String render(final SensitiveData data) {
+        return mode.render(data);
+    }
+
+    /**
+     * Adia a montagem de uma mensagem de log até o layout chamar o seu <code>toString()</code>, o que só acontece se o
+     * evento for gravado. Ex.: {@code log.debug("{}", SensitiveLogging.lazy(() -> "Cliente " + cliente))}.
+     *
+     * @param message Montagem da mensagem
+     * @return Argumento para a mensagem de log
+     */
+    public static Object lazy(final Supplier<?> message) {
+        return new LazyMessage(message);
+    }
+
+    @Override
+    public void destroy() {
+        setMode(previous);
+    }
+
+    private static final class LazyMessage {
+
+        private final Supplier<?> message;
+
+        private LazyMessage(final Supplier<?> message) {
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(message.get());
+        }
+    }
+
+}
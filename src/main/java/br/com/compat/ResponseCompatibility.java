@@ -0,0 +1,570 @@
+package br.com.compat;
+
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Utilitário para converter Response entre javax <-> jakarta via reflection.
+ *
+ * - Os métodos retornam Object para evitar depêndencia de compile-time.
+ * - Reconstrói status, entity, headers, location e cookies (quando possível).
+ * - Os métodos de cada classe concreta de Response e de ResponseBuilder são resolvidos uma única vez, no primeiro
+ *   uso, e guardados como MethodHandle; as conversões seguintes não fazem nenhum lookup.
+ * - Passthrough: a entity nunca é lida nem copiada. InputStream, byte[] e arquivos passam pela mesma referência, um
+ *   StreamingOutput do outro namespace é adaptado sem ler o conteúdo e, em responses de entrada (client), o stream é
+ *   obtido via readEntity(InputStream.class). Os headers são lidos por uma view sobre o mapa de origem, sem cópia.
+ *
+ * Uso:
+ *   Object jakartaResp = ResponseCompatibility.convertToJakarta(javaxResponse);
+ *   Object javaxResp = ResponseCompatibility.convertToJavax(jakartaResponse);
+ */
+public final class ResponseCompatibility {
+
+    private static final String JAKARTA_RESPONSE = "jakarta.ws.rs.core.Response";
+    private static final String JAVAX_RESPONSE = "javax.ws.rs.core.Response";
+    private static final String JAKARTA_STREAMING_OUTPUT = "jakarta.ws.rs.core.StreamingOutput";
+    private static final String JAVAX_STREAMING_OUTPUT = "javax.ws.rs.core.StreamingOutput";
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final Object FAILED = new Object();
+
+    private static final ClassValue<ResponseReader> READERS = new ClassValue<ResponseReader>() {
+        @Override
+        protected ResponseReader computeValue(Class<?> type) {
+            return new ResponseReader(type);
+        }
+    };
+    private static final ClassValue<BuilderWriter> WRITERS = new ClassValue<BuilderWriter>() {
+        @Override
+        protected BuilderWriter computeValue(Class<?> type) {
+            return new BuilderWriter(type);
+        }
+    };
+    private static final ClassValue<MethodHandle> STREAMING_WRITERS = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return streamingWriter(type);
+        }
+    };
+    private static final ConcurrentMap<String, MethodHandle> STATUS_FACTORIES = new ConcurrentHashMap<>();
+
+    private ResponseCompatibility() {}
+
+    // ---------- Public API ----------
+
+    public static Object convertToJakarta(Object javaxResponse) {
+        if (javaxResponse == null) return null;
+        return convert(javaxResponse, JAKARTA_RESPONSE);
+    }
+
+    public static Object convertToJavax(Object jakartaResponse) {
+        if (jakartaResponse == null) return null;
+        return convert(jakartaResponse, JAVAX_RESPONSE);
+    }
+
+    private static Object convert(Object response, String responseClassName) {
+        ResponseReader reader = READERS.get(response.getClass());
+        Map<String, List<Object>> headers = reader.headers(response);
+        int status = reader.status(response);
+        Object entity = passthrough(reader.entity(response), responseClassName);
+        String mediaType = reader.mediaType(response);
+        String location = reader.location(response);
+        List<String> setCookieHeaders = reader.setCookieHeaders(response, headers);
+
+        return buildResponse(responseClassName, status, entity, mediaType, headers, setCookieHeaders, location);
+    }
+
+    // ---------- Extraction (MethodHandles por classe de Response) ----------
+
+    /**
+     * Getters de uma classe concreta de Response. Os getters inexistentes ficam null e a extração usa o mesmo
+     * fallback de antes.
+     */
+    private static final class ResponseReader {
+
+        private final MethodHandle getStatus;
+        private final MethodHandle status;
+        private final MethodHandle getEntity;
+        private final MethodHandle readEntity;
+        private final MethodHandle getHeaders;
+        private final MethodHandle getStringHeaders;
+        private final MethodHandle getMediaType;
+        private final MethodHandle getLocation;
+        private final MethodHandle getCookies;
+
+        private ResponseReader(Class<?> type) {
+            this.getStatus = getter(type, "getStatus");
+            this.status = getter(type, "status");
+            this.getEntity = getter(type, "getEntity");
+            MethodHandle read = handle(type, "readEntity", Class.class);
+            this.readEntity = read == null ? null : MethodHandles.insertArguments(read, 1, InputStream.class);
+            this.getHeaders = getter(type, "getHeaders");
+            this.getStringHeaders = getter(type, "getStringHeaders");
+            this.getMediaType = getter(type, "getMediaType");
+            this.getLocation = getter(type, "getLocation");
+            this.getCookies = getter(type, "getCookies");
+        }
+
+        int status(Object response) {
+            Object v = call(getStatus, response);
+            if (v instanceof Integer) return (Integer) v;
+            // fallback common names
+            v = call(status, response);
+            if (v instanceof Integer) return (Integer) v;
+            return 200;
+        }
+
+        Object entity(Object response) {
+            Object v = call(getEntity, response);
+            if (v != FAILED) return v;
+            // responses de entrada não expõem getEntity(); o stream é repassado sem ser lido
+            v = call(readEntity, response);
+            return v == FAILED ? null : v;
+        }
+
+        Map<String, List<Object>> headers(Object response) {
+            Object headersObj = call(getHeaders, response);
+            if (headersObj != null && headersObj != FAILED) {
+                if (headersObj instanceof Map) return new HeaderView((Map<?, ?>) headersObj);
+                // raro: headers que não implementam Map; mantém a leitura via entrySet por reflection
+                Map<String, List<Object>> result = new LinkedHashMap<>();
+                if (copyHeadersViaEntrySet(headersObj, result)) return result;
+            }
+
+            // fallback: try getStringHeaders()
+            headersObj = call(getStringHeaders, response);
+            if (headersObj instanceof Map) return new HeaderView((Map<?, ?>) headersObj);
+            return Collections.emptyMap();
+        }
+
+        String mediaType(Object response) {
+            Object mt = call(getMediaType, response);
+            if (mt == null || mt == FAILED) return null;
+            try {
+                return mt.toString();
+            } catch (Exception ignored) {
+                return null;
+            }
+        }
+
+        String location(Object response) {
+            Object loc = call(getLocation, response);
+            if (loc == null || loc == FAILED) return null;
+            return loc instanceof URI ? loc.toString() : String.valueOf(loc);
+        }
+
+        List<String> setCookieHeaders(Object response, Map<String, List<Object>> headers) {
+            List<String> cookies = new ArrayList<>();
+            // try getCookies() -> Map<String, Cookie>
+            Object cookiesObj = call(getCookies, response);
+            if (cookiesObj instanceof Map) {
+                for (Object cookieVal : ((Map<?, ?>) cookiesObj).values()) {
+                    if (cookieVal == null) continue;
+                    try {
+                        String s = cookieVal.toString();
+                        if (s != null) cookies.add(s);
+                    } catch (Exception ex) {
+                        cookies.add(String.valueOf(cookieVal));
+                    }
+                }
+            }
+
+            // fallback: check headers "Set-Cookie", já extraídos
+            List<Object> sc = headers.get("Set-Cookie");
+            if (sc == null) sc = headers.get("set-cookie");
+            if (sc != null) {
+                for (Object v : sc) {
+                    cookies.add(String.valueOf(v));
+                }
+            }
+            return cookies;
+        }
+    }
+
+    /**
+     * View somente leitura sobre o mapa de headers do Response de origem. Chaves e valores são convertidos apenas
+     * quando lidos; listas de valores são expostas sem cópia.
+     */
+    private static final class HeaderView extends AbstractMap<String, List<Object>> {
+
+        private final Map<?, ?> raw;
+
+        private HeaderView(Map<?, ?> raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public List<Object> get(Object key) {
+            Object val = raw.get(key);
+            return val == null && !raw.containsKey(key) ? null : toListView(val);
+        }
+
+        @Override
+        public int size() {
+            return raw.size();
+        }
+
+        @Override
+        public Set<Entry<String, List<Object>>> entrySet() {
+            return new AbstractSet<Entry<String, List<Object>>>() {
+                @Override
+                public Iterator<Entry<String, List<Object>>> iterator() {
+                    Iterator<? extends Entry<?, ?>> it = raw.entrySet().iterator();
+                    return new Iterator<Entry<String, List<Object>>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, List<Object>> next() {
+                            Entry<?, ?> e = it.next();
+                            return new SimpleImmutableEntry<>(String.valueOf(e.getKey()), toListView(e.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return raw.size();
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> toListView(Object val) {
+        if (val instanceof List) return Collections.unmodifiableList((List<Object>) val);
+        if (val instanceof Collection) return toList(val);
+        return Collections.singletonList(val);
+    }
+
+    private static boolean copyHeadersViaEntrySet(Object headersObj, Map<String, List<Object>> result) {
+        try {
+            Method entrySet = headersObj.getClass().getMethod("entrySet");
+            Iterable<?> it = (Iterable<?>) entrySet.invoke(headersObj);
+            for (Object e : it) {
+                Method getKey = e.getClass().getMethod("getKey");
+                Method getVal = e.getClass().getMethod("getValue");
+                result.put(String.valueOf(getKey.invoke(e)), toList(getVal.invoke(e)));
+            }
+            return true;
+        } catch (Exception ignored) {
+            return false;
+        }
+    }
+
+    private static List<Object> toList(Object val) {
+        List<Object> list = new ArrayList<>();
+        if (val instanceof Collection) list.addAll((Collection<?>) val);
+        else list.add(val);
+        return list;
+    }
+
+    // ---------- Passthrough da entity ----------
+
+    /**
+     * Entity repassada sem leitura nem cópia. Apenas um StreamingOutput do outro namespace (javax x jakarta) precisa
+     * ser adaptado, já que o runtime de destino não o reconhece: o adaptador delega o write(OutputStream) para a
+     * instância original.
+     */
+    private static Object passthrough(Object entity, String responseClassName) {
+        if (entity == null || entity instanceof InputStream || entity instanceof byte[] || entity instanceof File
+                || entity instanceof java.nio.file.Path) return entity;
+
+        MethodHandle write = STREAMING_WRITERS.get(entity.getClass());
+        if (write == null) return entity;
+
+        Class<?> target = streamingOutputClass(responseClassName);
+        if (target == null || target.isInstance(entity)) return entity;
+        return Proxy.newProxyInstance(target.getClassLoader(), new Class<?>[] {target}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "write":
+                    write.invoke(entity, args[0]);
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return entity.toString();
+            }
+        });
+    }
+
+    private static Class<?> streamingOutputClass(String responseClassName) {
+        try {
+            return Class.forName(responseClassName.startsWith("jakarta.") ? JAKARTA_STREAMING_OUTPUT
+                    : JAVAX_STREAMING_OUTPUT);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * write(OutputStream) do StreamingOutput (javax ou jakarta) implementado pela classe, ou null se não for um.
+     */
+    private static MethodHandle streamingWriter(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Class<?> iface : c.getInterfaces()) {
+                MethodHandle write = streamingWriterOf(iface);
+                if (write != null) return write;
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandle streamingWriterOf(Class<?> iface) {
+        String name = iface.getName();
+        if (name.equals(JAKARTA_STREAMING_OUTPUT) || name.equals(JAVAX_STREAMING_OUTPUT)) {
+            try {
+                return LOOKUP.unreflect(iface.getMethod("write", OutputStream.class));
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+        }
+        for (Class<?> parent : iface.getInterfaces()) {
+            MethodHandle write = streamingWriterOf(parent);
+            if (write != null) return write;
+        }
+        return null;
+    }
+
+    // ---------- Builder (MethodHandles por classe de ResponseBuilder) ----------
+
+    /**
+     * Constrói um Response chamando:
+     *   <ResponseClass>.status(int).entity(...).header(...).build()
+     *
+     * responseClassName: "jakarta.ws.rs.core.Response" ou "javax.ws.rs.core.Response"
+     */
+    private static Object buildResponse(
+            String responseClassName,
+            int status,
+            Object entity,
+            String mediaType,
+            Map<String, List<Object>> headers,
+            List<String> setCookieHeaders,
+            String location) {
+
+        MethodHandle factory = statusFactory(responseClassName);
+        Object builder;
+        try {
+            builder = (Object) factory.invokeExact(status);
+        } catch (Throwable ex) {
+            throw new RuntimeException("Erro ao construir Response " + responseClassName, ex);
+        }
+        if (builder == null) return null;
+
+        BuilderWriter writer = WRITERS.get(builder.getClass());
+
+        // set entity if available
+        if (entity != null) writer.entity(builder, entity);
+
+        // add headers map
+        if (headers != null) {
+            for (Map.Entry<String, List<Object>> e : headers.entrySet()) {
+                List<Object> vals = e.getValue();
+                if (vals == null) continue;
+                for (Object v : vals) {
+                    writer.header(builder, e.getKey(), v);
+                }
+            }
+        }
+
+        // media type as Content-Type header (safer than relying on MediaType class availability)
+        if (mediaType != null && !mediaType.isEmpty()) writer.header(builder, "Content-Type", mediaType);
+
+        // location
+        if (location != null) writer.location(builder, location);
+
+        // set-cookie headers
+        if (setCookieHeaders != null) {
+            for (String cookie : setCookieHeaders) {
+                writer.header(builder, "Set-Cookie", cookie);
+            }
+        }
+
+        return writer.build(builder, responseClassName);
+    }
+
+    private static MethodHandle statusFactory(String responseClassName) {
+        MethodHandle factory = STATUS_FACTORIES.get(responseClassName);
+        if (factory != null) return factory;
+
+        try {
+            Class<?> respClass = Class.forName(responseClassName);
+            factory = LOOKUP.unreflect(respClass.getMethod("status", int.class))
+                    .asType(MethodType.methodType(Object.class, int.class));
+        } catch (ClassNotFoundException cnf) {
+            throw new RuntimeException("Classe de Response não encontrada: " + responseClassName, cnf);
+        } catch (ReflectiveOperationException ex) {
+            throw new RuntimeException("Erro ao construir Response " + responseClassName, ex);
+        }
+        STATUS_FACTORIES.putIfAbsent(responseClassName, factory);
+        return factory;
+    }
+
+    /**
+     * Métodos de uma classe concreta de ResponseBuilder.
+     */
+    private static final class BuilderWriter {
+
+        private final MethodHandle entity;
+        private final MethodHandle header;
+        private final MethodHandle location;
+        private final MethodHandle build;
+        private final ReflectiveOperationException buildMissing;
+
+        private BuilderWriter(Class<?> builderClass) {
+            this.entity = handle(builderClass, "entity", Object.class);
+            this.header = handle(builderClass, "header", String.class, Object.class);
+            this.location = handle(builderClass, "location", URI.class);
+
+            MethodHandle buildHandle = handle(builderClass, "build");
+            ReflectiveOperationException missing = null;
+            if (buildHandle == null) {
+                // sometimes builder is an interface; try to find no-arg build()
+                try {
+                    buildHandle = unreflect(builderClass.getMethod("build"));
+                } catch (ReflectiveOperationException ex) {
+                    missing = ex;
+                }
+            }
+            this.build = buildHandle;
+            this.buildMissing = missing;
+        }
+
+        void entity(Object builder, Object value) {
+            if (entity == null) return;
+            try {
+                Object self = (Object) entity.invokeExact(builder, value);
+            } catch (Throwable ignored) {}
+        }
+
+        void header(Object builder, String name, Object value) {
+            if (header == null) return;
+            try {
+                Object self = (Object) header.invokeExact(builder, (Object) name, value);
+            } catch (Throwable ignored) {}
+        }
+
+        void location(Object builder, String value) {
+            try {
+                if (location != null) {
+                    // try URI param first
+                    Object self = (Object) location.invokeExact(builder, (Object) new URI(value));
+                } else {
+                    // fallback to header "Location"
+                    header(builder, "Location", value);
+                }
+            } catch (Throwable ignored) {}
+        }
+
+        Object build(Object builder, String responseClassName) {
+            if (build == null) {
+                throw new RuntimeException("Erro ao construir Response " + responseClassName, buildMissing);
+            }
+            try {
+                return (Object) build.invokeExact(builder);
+            } catch (Throwable ex) {
+                throw new RuntimeException("Erro ao construir Response " + responseClassName, ex);
+            }
+        }
+    }
+
+    // ---------- MethodHandles ----------
+
+    private static MethodHandle getter(Class<?> type, String name) {
+        MethodHandle handle = handle(type, name);
+        return handle == null ? null : handle.asType(GETTER);
+    }
+
+    private static MethodHandle handle(Class<?> type, String name, Class<?>... params) {
+        Method method = findMethod(type, name, params);
+        if (method == null) return null;
+        try {
+            MethodHandle handle = unreflect(method);
+            return handle.asType(handle.type().generic());
+        } catch (IllegalAccessException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * Faz o unreflect do método público. Se a classe que o declara não for pública (implementações internas), usa a
+     * mesma assinatura declarada em uma superclasse ou interface pública.
+     */
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) return LOOKUP.unreflect(method);
+
+        Method visible = findPublicDeclaration(method.getDeclaringClass(), method);
+        if (visible == null) throw new IllegalAccessException("Método sem declaração pública: " + method);
+        return LOOKUP.unreflect(visible);
+    }
+
+    private static Method findPublicDeclaration(Class<?> type, Method method) {
+        if (type == null) return null;
+        if (Modifier.isPublic(type.getModifiers())) {
+            try {
+                return type.getMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException ignored) {}
+        }
+        for (Class<?> iface : type.getInterfaces()) {
+            Method found = findPublicDeclaration(iface, method);
+            if (found != null) return found;
+        }
+        return findPublicDeclaration(type.getSuperclass(), method);
+    }
+
+    /**
+     * Invoca o handle. Assim como no Method.invoke, qualquer falha do método chamado é ignorada e o chamador usa o
+     * fallback.
+     */
+    private static Object call(MethodHandle handle, Object target) {
+        if (handle == null) return FAILED;
+        try {
+            return (Object) handle.invokeExact(target);
+        } catch (Throwable ignored) {
+            return FAILED;
+        }
+    }
+
+    // procura método com assinatura aproximada (compatibilidade com impls diferentes)
+    private static Method findMethod(Class<?> cls, String name, Class<?>... params) {
+        try {
+            return cls.getMethod(name, params);
+        } catch (NoSuchMethodException ignored) {
+            // procura método com mesmo nome e compatível por tipos (polimórfico)
+            for (Method m : cls.getMethods()) {
+                if (!m.getName().equals(name)) continue;
+                Class<?>[] p = m.getParameterTypes();
+                if (params == null || params.length == 0) {
+                    if (p.length == 0) return m;
+                    continue;
+                }
+                if (p.length != params.length) continue;
+                boolean ok = true;
+                for (int i = 0; i < p.length; i++) {
+                    // permissive check: se o parâmetro declarado aceita Object ou é o mesmo tipo
+                    if (params[i] == Object.class) continue;
+                    if (!p[i].isAssignableFrom(params[i])) { ok = false; break; }
+                }
+                if (ok) return m;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import static java.util.Optional.of;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark do fluxo fluente do {@link AbstractInvoker}, comparando o fluxo atual com uma réplica do fluxo anterior
+ * ({@link LegacyChain}), que criava o {@code Optional} do header a cada {@code prepare} e reaplicava o mapper do response a
+ * cada {@code get()}.
+ *
+ * Não é executado no {@code mvn test}. Para rodar, com o profiler de alocação:
+ *
+ * <pre>
+ * java -cp target/test-classes:&lt;classpath de teste&gt; br.com.alcidesbezerra.bff.generica.AbstractInvokerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AbstractInvokerBenchmark {
+
+    private static final Function<String, String> REQUEST_MAPPER = request -> request;
+    private static final Function<String, Integer> RESPONSE_MAPPER = response -> {
+        Blackhole.consumeCPU(64);
+        return response.length();
+    };
+
+    private final NoOpInvoker invoker = new NoOpInvoker();
+    private final String request = "request";
+    private final String header = "header";
+
+    @Benchmark
+    public Integer fluentChain() {
+        return invoker.prepare(request).map(REQUEST_MAPPER).run().map(RESPONSE_MAPPER).get();
+    }
+
+    @Benchmark
+    public Integer legacyFluentChain() {
+        return LegacyChain.prepare(invoker, request).map(REQUEST_MAPPER).run().map(RESPONSE_MAPPER).get();
+    }
+
+    @Benchmark
+    public Integer headerChain() {
+        return invoker.header(header).prepare(request).map(REQUEST_MAPPER).run().map(RESPONSE_MAPPER).get();
+    }
+
+    @Benchmark
+    public Integer legacyHeaderChain() {
+        return LegacyChain.header(invoker, header).prepare(request).map(REQUEST_MAPPER).run().map(RESPONSE_MAPPER)
+            .get();
+    }
+
+    @Benchmark
+    public void responseReadTwice(final Blackhole blackhole) {
+        final Supplier<Integer> response = invoker.run(request).map(RESPONSE_MAPPER);
+        blackhole.consume(response.get());
+        blackhole.consume(response.get());
+    }
+
+    @Benchmark
+    public void legacyResponseReadTwice(final Blackhole blackhole) {
+        final Supplier<Integer> response = new LegacyChain.Response<>(invoker.run(request).get()).map(RESPONSE_MAPPER);
+        blackhole.consume(response.get());
+        blackhole.consume(response.get());
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AbstractInvokerBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build()).run();
+    }
+
+    /**
+     * Invoker sem backend, para medir apenas o custo do fluxo.
+     */
+    static final class NoOpInvoker extends AbstractInvoker<String, String, String> {
+
+        @Override
+        protected String invoke(final String stubin, final Optional<String> header) {
+            return stubin;
+        }
+
+        @Override
+        public RuntimeException handleException(final Exception e) {
+            return new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Réplica do fluxo fluente anterior, mantida apenas para comparação.
+     */
+    static final class LegacyChain {
+
+        private static final MethodHandle EXECUTE;
+
+        static {
+            try {
+                EXECUTE = MethodHandles.privateLookupIn(AbstractInvoker.class, MethodHandles.lookup())
+                    .findVirtual(AbstractInvoker.class, "execute",
+                        MethodType.methodType(Object.class, Object.class, Optional.class))
+                    .asType(MethodType.methodType(String.class, AbstractInvoker.class, Object.class, Optional.class));
+            } catch (final ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        static <REQUEST> Prepare<REQUEST> prepare(final NoOpInvoker invoker, final REQUEST request) {
+            return new Prepare<>(invoker, request, Optional.empty());
+        }
+
+        static Header header(final NoOpInvoker invoker, final String header) {
+            return new Header(invoker, header);
+        }
+
+        static final class Header {
+
+            private final NoOpInvoker invoker;
+            private final String header;
+
+            Header(final NoOpInvoker invoker, final String header) {
+                this.invoker = invoker;
+                this.header = header;
+            }
+
+            <REQUEST> Prepare<REQUEST> prepare(final REQUEST request) {
+                return new Prepare<>(invoker, request, of(header));
+            }
+        }
+
+        static final class Prepare<REQUEST> {
+
+            private final NoOpInvoker invoker;
+            private final REQUEST request;
+            private final Optional<String> header;
+
+            Prepare(final NoOpInvoker invoker, final REQUEST request, final Optional<String> header) {
+                this.invoker = invoker;
+                this.request = request;
+                this.header = header;
+            }
+
+            Call map(final Function<REQUEST, String> mapper) {
+                return new Call(invoker, mapper.apply(request), header);
+            }
+        }
+
+        static final class Call {
+
+            private final NoOpInvoker invoker;
+            private final String stubin;
+            private final Optional<String> header;
+
+            Call(final NoOpInvoker invoker, final String stubin, final Optional<String> header) {
+                this.invoker = invoker;
+                this.stubin = stubin;
+                this.header = header;
+            }
+
+            Response<String> run() {
+                return new Response<>(get());
+            }
+
+            /**
+             * Como no fluxo anterior, {@code invoker.execute(stubin, header)}. O método é privado, então a chamada
+             * passa por um {@link MethodHandle} constante, que o JIT compila como chamada direta.
+             */
+            private String get() {
+                try {
+                    return (String) EXECUTE.invokeExact((AbstractInvoker<?, ?, ?>) invoker, (Object) stubin, header);
+                } catch (final RuntimeException | Error e) {
+                    throw e;
+                } catch (final Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        static final class Response<STUBOUT> {
+
+            private final STUBOUT stubout;
+
+            Response(final STUBOUT stubout) {
+                this.stubout = stubout;
+            }
+
+            <RESPONSE> Supplier<RESPONSE> map(final Function<STUBOUT, RESPONSE> mapper) {
+                return () -> mapper.apply(stubout);
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AbstractInvokerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    AbstractInvokerTest() {
+        Metrics.addRegistry(meterRegistry);
+    }
+
+    @AfterEach
+    void removeRegistry() {
+        Metrics.removeRegistry(meterRegistry);
+        meterRegistry.close();
+    }
+
+    @Test
+    void asyncTimeoutIsRecordedOnce() throws Exception {
+        final SlowInvoker invoker = new SlowInvoker();
+
+        assertThatThrownBy(() -> invoker.runAsync("request").join())
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(IllegalStateException.class);
+        awaitNoneInFlight("SlowInvoker");
+
+        assertThat(meterRegistry.get("invoker.errors").tag("invoker", "SlowInvoker").counters().stream()
+            .mapToDouble(Counter::count).sum()).isEqualTo(1);
+        assertThat(meterRegistry.get("invoker.calls").tag("invoker", "SlowInvoker").tag("outcome", "error").timer()
+            .count()).isEqualTo(1);
+        assertThat(meterRegistry.get("invoker.calls").tag("invoker", "SlowInvoker").tag("outcome", "success").timer()
+            .count()).isZero();
+    }
+
+    @Test
+    void bulkheadRejectionIsNotRetried() throws Exception {
+        final BlockingInvoker invoker = new BlockingInvoker();
+        final CompletableFuture<String> occupying = CompletableFuture.supplyAsync(() -> invoker.run("first").get());
+        assertThat(invoker.started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            assertThatThrownBy(() -> invoker.run("second").get())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("SERVICO INDISPONIVEL");
+        } finally {
+            invoker.release.countDown();
+        }
+
+        assertThat(occupying.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(invoker.invocations).hasValue(1);
+        assertThat(meterRegistry.get("invoker.retry").tag("invoker", "BlockingInvoker").counters().stream()
+            .mapToDouble(Counter::count).sum()).isZero();
+    }
+
+    @Test
+    void asyncCallRejectedByTheExecutorFailsAsUnavailable() throws Exception {
+        final BlockingInvoker invoker = new BlockingInvoker(InvokerExecutors.newBoundedThreadPool(1, 1));
+        try {
+            final CompletableFuture<String> running = invoker.runAsync("first");
+            final CompletableFuture<String> queued = invoker.runAsync("second");
+
+            assertThatThrownBy(() -> invoker.runAsync("third").join())
+                .isInstanceOf(CompletionException.class)
+                .hasMessageContaining("SERVICO INDISPONIVEL");
+
+            invoker.release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+        } finally {
+            invoker.release.countDown();
+            invoker.executor.shutdown();
+        }
+    }
+
+    private void awaitNoneInFlight(final String invoker) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("invoker.in_flight").tag("invoker", invoker).gauge().value() > 0) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Invoker com uma única vaga no bulkhead e retentativas, cujo WebService só responde quando liberado.
+     */
+    static final class BlockingInvoker extends AbstractInvoker<String, String, String> {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger invocations = new AtomicInteger();
+        private final ExecutorService executor;
+
+        BlockingInvoker() {
+            this(null);
+        }
+
+        BlockingInvoker(final ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        protected Executor executor() {
+            return executor != null ? executor : super.executor();
+        }
+
+        @Override
+        protected int maxConcurrentCalls() {
+            return 1;
+        }
+
+        @Override
+        protected int maxRetries() {
+            return 2;
+        }
+
+        @Override
+        protected Duration retryBackoff() {
+            return Duration.ofMillis(1);
+        }
+
+        @Override
+        protected String invoke(final String stubin, final Optional<String> header) throws Exception {
+            invocations.incrementAndGet();
+            started.countDown();
+            release.await();
+            return stubin;
+        }
+
+        @Override
+        public RuntimeException handleException(final Exception e) {
+            return new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Invoker cujo WebService só responde depois do timeout da chamada assíncrona.
+     */
+    static final class SlowInvoker extends AbstractInvoker<String, String, String> {
+
+        @Override
+        protected Duration timeout() {
+            return Duration.ofMillis(50);
+        }
+
+        @Override
+        protected String invoke(final String stubin, final Optional<String> header) throws Exception {
+            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            return stubin;
+        }
+
+        @Override
+        public RuntimeException handleException(final Exception e) {
+            return new IllegalStateException(e);
+        }
+    }
+
+}
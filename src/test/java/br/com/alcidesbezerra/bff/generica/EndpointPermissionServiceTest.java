@@ -0,0 +1,159 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EndpointPermissionServiceTest {
+
+    private static final String CONTACT = WLRoles.PERM_OMINI_CHANEL_PERFIL_FORMS_CONTACT.getKey();
+    private static final String OMBUDSMAN = WLRoles.PERM_OMINI_CHANEL_PERFIL_FORMS_OMBUDSMAN.getKey();
+
+    private final EndpointPermissionService service = service();
+
+    @Test
+    void bulkResolvesEachDistinctQueryOnce() {
+        final ResponseEntity<Map<String, Object>> response = service.getPermissionsForEndpoints(Arrays.asList(
+            new EndpointPermissionRequest("/api/forms", "POST", "CONTATO"),
+            new EndpointPermissionRequest("/api/forms", "POST", "CONTATO"),
+            new EndpointPermissionRequest("/api/forms", "GET", null),
+            new EndpointPermissionRequest("/api/public", "GET", null)));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        @SuppressWarnings("unchecked")
+        final Map<String, String[]> roles = (Map<String, String[]>) response.getBody().get(PermissionPlan.ROLES);
+        assertThat(roles).hasSize(3);
+        assertThat(roles.get(new EndpointPermissionRequest("/api/forms", "POST", "CONTATO").toKey()))
+            .containsExactly(CONTACT);
+        assertThat(roles.get(new EndpointPermissionRequest("/api/forms", "GET", null).toKey()))
+            .containsExactly("ADMIN", "GESTOR");
+        assertThat(roles.get(new EndpointPermissionRequest("/api/public", "GET", null).toKey())).isEmpty();
+    }
+
+    @Test
+    void bulkRejectsInvalidQueries() {
+        assertThat(service.getPermissionsForEndpoints(Collections.emptyList()).getStatusCode())
+            .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(service.getPermissionsForEndpoints(Collections.singletonList(
+            new EndpointPermissionRequest("/api/forms", null, null))).getStatusCode())
+            .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void manifestIsRevalidatedWithItsETag() {
+        final ResponseEntity<byte[]> manifest = service.getPermissionManifest(null);
+        assertThat(manifest.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(new String(manifest.getBody())).contains("/api/forms:GET", "/api/forms:POST");
+
+        final ResponseEntity<byte[]> revalidated = service.getPermissionManifest(manifest.getHeaders().getETag());
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(revalidated.getBody()).isNull();
+    }
+
+    @Test
+    void reverseIndexListsRoutesAndFormTypesForRoles() {
+        assertThat(service.resolveEndpoints(Collections.singleton("ADMIN"))).containsExactly("/api/forms:GET");
+        assertThat(service.resolveEndpoints(Collections.singleton(CONTACT))).containsExactly("/api/forms:POST");
+
+        final Map<String, Object> body = service.getEndpointsForRoles(Arrays.asList(CONTACT, "GESTOR")).getBody();
+        assertThat(body.get("endpoints")).isEqualTo(Arrays.asList("/api/forms:GET", "/api/forms:POST"));
+        assertThat(body.get("formTypes")).isEqualTo(Collections.singletonList("CONTATO"));
+    }
+
+    @Test
+    void reloadAppliesOverridesAndChangesTheManifest() {
+        final String eTag = service.getPermissionManifest(null).getHeaders().getETag();
+
+        final PermissionOverrides overrides = PermissionOverrides.none();
+        overrides.getRoutes().put("/api/public:GET", "hasRole('ADMIN')");
+        overrides.getFormTypes().put("OUVIDORIA", WLRoles.PERM_OMINI_CHANEL_PERFIL_FORMS_CONTACT.name());
+
+        assertThat(service.reload(overrides)).isTrue();
+        assertThat(service.getVersion()).isEqualTo(2);
+        assertThat(service.resolveRoles("/api/public", "GET", null)).containsExactly("ADMIN");
+        assertThat(service.resolveRoles("/api/forms", "POST", "OUVIDORIA")).containsExactly(CONTACT);
+        assertThat(service.resolveEndpoints(Collections.singleton("ADMIN")))
+            .containsExactly("/api/forms:GET", "/api/public:GET");
+        assertThat(service.getPermissionManifest(eTag).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void invalidReloadKeepsTheCurrentIndex() {
+        final PermissionOverrides overrides = PermissionOverrides.none();
+        overrides.getRoutes().put("/api/public:GET", "hasRole('ADMIN'");
+
+        assertThat(service.reload(overrides)).isFalse();
+        assertThat(service.getVersion()).isEqualTo(1);
+        assertThat(service.resolveRoles("/api/public", "GET", null)).isEmpty();
+        assertThat(service.resolveRoles("/api/forms", "POST", "OUVIDORIA")).containsExactly(OMBUDSMAN);
+    }
+
+    private static EndpointPermissionService service() {
+        final Map<RequestMappingInfo, HandlerMethod> handlerMethods = new LinkedHashMap<>();
+        handlerMethods.put(mapping("/api/forms", RequestMethod.GET), handler("list"));
+        handlerMethods.put(mapping("/api/forms", RequestMethod.POST), handler("create", String.class));
+        handlerMethods.put(mapping("/api/public", RequestMethod.GET), handler("open"));
+
+        final RequestMappingHandlerMapping requestMappingHandlerMapping = mock(RequestMappingHandlerMapping.class);
+        when(requestMappingHandlerMapping.getHandlerMethods()).thenReturn(handlerMethods);
+
+        final ObjectMapper objectMapper = new ObjectMapper();
+        return new EndpointPermissionService(requestMappingHandlerMapping, objectMapper,
+            new BodyTypeExtractor(objectMapper, "type"), new SimpleMeterRegistry());
+    }
+
+    private static RequestMappingInfo mapping(final String path, final RequestMethod method) {
+        final RequestMappingInfo.BuilderConfiguration options = new RequestMappingInfo.BuilderConfiguration();
+        options.setPathMatcher(new AntPathMatcher());
+        return RequestMappingInfo.paths(path).methods(method).options(options).build();
+    }
+
+    private static HandlerMethod handler(final String name, final Class<?>... parameterTypes) {
+        try {
+            final Method method = FormsController.class.getMethod(name, parameterTypes);
+            return new HandlerMethod(new FormsController(), method);
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Controller com uma rota estática, uma dinâmica e uma sem permissão.
+     */
+    static class FormsController {
+
+        @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR')")
+        public List<String> list() {
+            return Collections.emptyList();
+        }
+
+        @PreAuthorize("this.getPermission(#type)")
+        public void create(final String type) {
+        }
+
+        public void open() {
+        }
+    }
+
+}
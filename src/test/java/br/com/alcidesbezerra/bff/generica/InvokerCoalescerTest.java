@@ -0,0 +1,93 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InvokerCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InvokerCoalescer<String> coalescer = new InvokerCoalescer<>("test", null, 0, meterRegistry,
+        IllegalStateException::new);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void waiterRetriesWhenTheLeaderIsAbandoned() throws Exception {
+        final CountDownLatch leaderStarted = new CountDownLatch(1);
+        final InvokerTask<String> leader = InvokerTask.submit(() -> coalescer.execute("key", () -> {
+            leaderStarted.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (final InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return "leader";
+        }), executor);
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        final CompletableFuture<String> waiter = CompletableFuture.supplyAsync(
+            () -> coalescer.execute("key", () -> "waiter"), executor);
+        awaitCoalesced();
+
+        leader.abandon();
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("waiter");
+        assertThat(leader).isCompletedExceptionally();
+    }
+
+    @Test
+    void waiterCanBeInterrupted() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> coalescer.execute("key", () -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "leader";
+        }));
+
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread waiter = new Thread(() -> {
+            try {
+                coalescer.execute("key", () -> "waiter");
+            } catch (final RuntimeException e) {
+                failure.set(e);
+            }
+        });
+        waiter.start();
+        awaitCoalesced();
+
+        waiter.interrupt();
+        waiter.join(TimeUnit.SECONDS.toMillis(5));
+        release.countDown();
+
+        assertThat(waiter.isAlive()).isFalse();
+        assertThat(failure.get()).isInstanceOf(IllegalStateException.class)
+            .hasCauseInstanceOf(InterruptedException.class);
+    }
+
+    private void awaitCoalesced() throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("invoker.cache").tag("result", "coalesced").counter().count() < 1) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+}
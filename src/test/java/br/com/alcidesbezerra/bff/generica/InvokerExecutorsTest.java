@@ -0,0 +1,47 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class InvokerExecutorsTest {
+
+    @Test
+    void boundedPoolRejectsWhenThreadsAndQueueAreFull() throws Exception {
+        final ThreadPoolExecutor executor = InvokerExecutors.newBoundedThreadPool(2, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 3; i++) {
+                executor.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            assertThatThrownBy(() -> executor.execute(() -> { }))
+                .isInstanceOf(RejectedExecutionException.class);
+            assertThat(executor.getPoolSize()).isEqualTo(2);
+            assertThat(executor.getQueue()).hasSize(1);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    void boundedPoolRequiresPositiveLimits() {
+        assertThatThrownBy(() -> InvokerExecutors.newBoundedThreadPool(0, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
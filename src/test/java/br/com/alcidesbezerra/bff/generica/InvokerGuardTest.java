@@ -0,0 +1,50 @@
+package br.com.alcidesbezerra.bff.generica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InvokerGuardTest {
+
+    @Test
+    void slowSuccessStartedBeforeOpeningDoesNotCloseTheCircuit() {
+        final InvokerGuard guard = guard(Duration.ofMinutes(1));
+
+        assertThat(guard.tryAcquire()).isTrue(); // chamada lenta, ainda em andamento
+        for (int i = 0; i < 2; i++) {
+            assertThat(guard.tryAcquire()).isTrue();
+            guard.release(true);
+        }
+        assertThat(guard.getState()).isEqualTo(InvokerGuard.State.OPEN);
+
+        guard.release(false); // a chamada lenta termina com sucesso
+
+        assertThat(guard.getState()).isEqualTo(InvokerGuard.State.OPEN);
+        assertThat(guard.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void onlyTheHalfOpenProbeClosesTheCircuit() {
+        final InvokerGuard guard = guard(Duration.ZERO);
+        for (int i = 0; i < 2; i++) {
+            assertThat(guard.tryAcquire()).isTrue();
+            guard.release(true);
+        }
+        assertThat(guard.getState()).isEqualTo(InvokerGuard.State.OPEN);
+
+        assertThat(guard.tryAcquire()).isTrue();
+        assertThat(guard.getState()).isEqualTo(InvokerGuard.State.HALF_OPEN);
+        guard.release(false);
+
+        assertThat(guard.getState()).isEqualTo(InvokerGuard.State.CLOSED);
+    }
+
+    private static InvokerGuard guard(final Duration openDuration) {
+        return new InvokerGuard("test", 4, Duration.ZERO, 2, openDuration, new SimpleMeterRegistry());
+    }
+
+}
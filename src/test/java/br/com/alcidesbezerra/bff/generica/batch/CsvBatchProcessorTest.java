@@ -0,0 +1,119 @@
+package br.com.alcidesbezerra.bff.generica.batch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.alcidesbezerra.bff.generica.security.domain.Cpf;
+
+class CsvBatchProcessorTest {
+
+    private static final int ROWS = 5_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void masksColumnInOrderKeepingHeaderQuotesAndLineEndings() throws Exception {
+        final StringBuilder input = new StringBuilder("id,cpf,nome\r\n");
+        final StringBuilder expected = new StringBuilder("id,cpf,nome\r\n");
+        for (int i = 0; i < ROWS; i++) {
+            final String cpf = String.format("%011d", i);
+            final String masked = new Cpf(cpf, false).mask();
+            final String newLine = i % 2 == 0 ? "\n" : "\r\n";
+            if (i % 3 == 0) {
+                input.append(i).append(",\"").append(cpf).append("\",nome ").append(i).append(newLine);
+                expected.append(i).append(",\"").append(masked).append("\",nome ").append(i).append(newLine);
+            } else {
+                input.append(i).append(',').append(cpf).append(",nome ").append(i).append(newLine);
+                expected.append(i).append(',').append(masked).append(",nome ").append(i).append(newLine);
+            }
+        }
+        input.append("last,01118438396,sem quebra");
+        expected.append("last,").append(new Cpf("01118438396", false).mask()).append(",sem quebra");
+
+        final Path in = Files.write(dir.resolve("in.csv"), input.toString().getBytes(UTF_8));
+        final Path out = dir.resolve("out.csv");
+
+        final BatchReport report = new CsvBatchProcessor(options(in, out, true, 4)).run();
+
+        assertThat(new String(Files.readAllBytes(out), UTF_8)).isEqualTo(expected.toString());
+        assertThat(report.getRows()).isEqualTo(ROWS + 1);
+        assertThat(BatchCheckpoint.pathFor(out)).doesNotExist();
+    }
+
+    @Test
+    void resumesFromCheckpointAfterCrash() throws Exception {
+        final StringBuilder input = new StringBuilder();
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < ROWS; i++) {
+            final String cpf = String.format("%011d", i);
+            input.append(i).append(',').append(cpf).append('\n');
+            expected.append(i).append(',').append(new Cpf(cpf, false).mask()).append('\n');
+        }
+
+        final Path in = Files.write(dir.resolve("in.csv"), input.toString().getBytes(UTF_8));
+        final Path out = dir.resolve("out.csv");
+        final BatchOptions options = options(in, out, false, 2);
+
+        // queda após gravar as 3000 primeiras linhas, com parte do bloco seguinte já na saída
+        final int resumedRows = 3_000;
+        final int inputOffset = ordinalIndexOf(input, resumedRows) + 1;
+        final int outputOffset = ordinalIndexOf(expected, resumedRows) + 1;
+        Files.write(out, (expected.substring(0, outputOffset) + "3000,*****").getBytes(UTF_8));
+        new BatchCheckpoint(inputOffset, outputOffset, resumedRows).write(options, BatchCheckpoint.identity(options));
+
+        final BatchReport report = new CsvBatchProcessor(options).run();
+
+        assertThat(report.getResumedRows()).isEqualTo(resumedRows);
+        assertThat(report.getRows()).isEqualTo(ROWS);
+        assertThat(new String(Files.readAllBytes(out), UTF_8)).isEqualTo(expected.toString());
+        assertThat(BatchCheckpoint.pathFor(out)).doesNotExist();
+    }
+
+    @Test
+    void rejectsCheckpointOfAnotherInputOrOptions() throws Exception {
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < ROWS; i++) {
+            input.append(i).append(i == 100 ? ';' : ',').append(String.format("%011d", i)).append('\n');
+        }
+
+        final Path in = Files.write(dir.resolve("in.csv"), input.toString().getBytes(UTF_8));
+        final Path out = dir.resolve("out.csv");
+
+        assertThatThrownBy(() -> new CsvBatchProcessor(options(in, out, false, 1)).run())
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(BatchCheckpoint.pathFor(out)).exists();
+
+        assertThatThrownBy(() -> new CsvBatchProcessor(new BatchOptions(BatchOperation.MASK, in, out, false, ",", 0,
+            false, 256, 1, true)).run())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("column: 1 -> 0");
+
+        // corrige a linha inválida mantendo o tamanho da entrada
+        Files.write(in, input.toString().replace(';', ',').getBytes(UTF_8));
+        assertThatThrownBy(() -> new CsvBatchProcessor(options(in, out, false, 1)).run())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("input-prefix-sha256");
+    }
+
+    private static BatchOptions options(final Path in, final Path out, final boolean header, final int parallelism) {
+        return new BatchOptions(BatchOperation.MASK, in, out, false, ",", 1, header, 256, parallelism, true);
+    }
+
+    private static int ordinalIndexOf(final CharSequence text, final int lines) {
+        final String value = text.toString();
+        int index = -1;
+        for (int i = 0; i < lines; i++) {
+            index = value.indexOf('\n', index + 1);
+        }
+        return index;
+    }
+
+}
@@ -0,0 +1,166 @@
+package br.com.alcidesbezerra.bff.generica.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+import javax.crypto.Cipher;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import br.com.alcidesbezerra.bff.generica.UndertowExecutionConfiguration;
+import br.com.alcidesbezerra.bff.generica.UndertowExecutionConfiguration.ExecutionMode;
+import br.com.alcidesbezerra.bff.generica.VirtualThreads;
+import br.com.alcidesbezerra.bff.generica.security.CryptoExecutor;
+import io.undertow.Undertow;
+import io.undertow.servlet.Servlets;
+import io.undertow.servlet.api.DeploymentInfo;
+import io.undertow.servlet.api.DeploymentManager;
+import io.undertow.servlet.util.ImmediateInstanceFactory;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Compara os modos de execução do {@link UndertowExecutionConfiguration} sob carga. Cada requisição faz uma chamada
+ * SOAP bloqueante ao {@link SoapStandInServer}, pelo {@code StandInInvoker}, e uma operação RSA pelo
+ * {@link CryptoExecutor}, como os handlers do BFF. O pool de workers do Undertow é limitado a
+ * {@code load.worker-threads}, para que a concorrência do teste o ultrapasse. Roda apenas no profile
+ * {@code load-test}:
+ *
+ * <pre>
+ * mvn test -Pload-test -Dtest=ExecutionModeLoadTest -Dload.concurrency=200 -Dload.worker-threads=16
+ * </pre>
+ *
+ * O modo {@code VIRTUAL_THREADS} é ignorado em runtimes sem virtual threads.
+ */
+@Tag("load")
+class ExecutionModeLoadTest {
+
+    private static final int CALLS = Integer.getInteger("load.calls", 4_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 200);
+    private static final int WORKER_THREADS = Integer.getInteger("load.worker-threads", 16);
+    private static final int MEDIAN_LATENCY_MS = Integer.getInteger("load.median-latency-ms", 20);
+
+    private static SoapStandInServer backend;
+    private static KeyPair keyPair;
+
+    @BeforeAll
+    static void startBackend() throws IOException, GeneralSecurityException {
+        backend = new SoapStandInServer(LatencyDistribution.logNormal(Duration.ofMillis(MEDIAN_LATENCY_MS), 0.3), 0,
+            2_048);
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2_048);
+        keyPair = generator.generateKeyPair();
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(ExecutionMode.class)
+    void executionModeUnderLoad(final ExecutionMode mode) throws Exception {
+        if (mode == ExecutionMode.VIRTUAL_THREADS) {
+            assumeTrue(VirtualThreads.isSupported(),
+                "Virtual threads indisponíveis neste runtime");
+        }
+
+        final InvokerLoadTest.StandInInvoker invoker = new InvokerLoadTest.StandInInvoker(backend, CONCURRENCY);
+        final DeploymentInfo deployment = Servlets.deployment()
+            .setClassLoader(getClass().getClassLoader())
+            .setContextPath("/")
+            .setDeploymentName(mode.name())
+            .addServlet(Servlets.servlet("bff", HttpServlet.class,
+                new ImmediateInstanceFactory<>(new BffServlet(invoker, keyPair))).addMapping("/*"));
+        final ExecutorService executor = UndertowExecutionConfiguration.apply(mode, deployment);
+
+        final DeploymentManager manager = Servlets.defaultContainer().addDeployment(deployment);
+        manager.deploy();
+        final Undertow server = Undertow.builder()
+            .addHttpListener(0, "127.0.0.1")
+            .setIoThreads(2)
+            .setWorkerThreads(WORKER_THREADS)
+            .setHandler(manager.start())
+            .build();
+        server.start();
+
+        try {
+            final InetSocketAddress address = (InetSocketAddress) server.getListenerInfo().get(0).getAddress();
+            final URL url = new URL(String.format("http://127.0.0.1:%d/", address.getPort()));
+
+            final LoadReport report = new LoadDriver(CALLS, CONCURRENCY, CALLS / 10)
+                .run(String.format("%s (workers=%d)", mode, WORKER_THREADS), () -> get(url));
+            System.out.println(report);
+
+            assertThat(report.getCalls()).isEqualTo(CALLS);
+            assertThat(report.getErrors()).isZero();
+        } finally {
+            server.stop();
+            manager.stop();
+            manager.undeploy();
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static Object get(final URL url) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            throw new IOException(String.format("Status %d", connection.getResponseCode()));
+        }
+        try (InputStream in = connection.getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Handler equivalente aos do BFF: chamada SOAP bloqueante seguida de uma operação RSA.
+     */
+    private static final class BffServlet extends HttpServlet {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient InvokerLoadTest.StandInInvoker invoker;
+        private final transient KeyPair keyPair;
+
+        private BffServlet(final InvokerLoadTest.StandInInvoker invoker, final KeyPair keyPair) {
+            this.invoker = invoker;
+            this.keyPair = keyPair;
+        }
+
+        @Override
+        protected void doGet(final HttpServletRequest request, final HttpServletResponse response)
+            throws IOException {
+            final byte[] stubout = invoker.run("<soap:Envelope/>".getBytes()).get();
+            try {
+                final byte[] signature = CryptoExecutor.execute(() -> {
+                    final Cipher cipher = Cipher.getInstance("RSA");
+                    cipher.init(Cipher.ENCRYPT_MODE, keyPair.getPrivate());
+                    return cipher.doFinal(new byte[] {(byte) stubout.length});
+                });
+                response.setStatus(HttpServletResponse.SC_OK);
+                response.getOutputStream().write(signature);
+            } catch (final GeneralSecurityException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package br.com.alcidesbezerra.bff.generica.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import br.com.alcidesbezerra.bff.generica.AbstractInvoker;
+
+/**
+ * Teste de carga de um {@link AbstractInvoker} contra o {@link SoapStandInServer}. Roda apenas no profile
+ * {@code load-test}, totalmente offline:
+ *
+ * <pre>
+ * mvn test -Pload-test -Dload.calls=5000 -Dload.concurrency=100 -Dload.median-latency-ms=20 -Dload.error-rate=0.01
+ * </pre>
+ *
+ * O relatório com vazão e percentis de latência é impresso na saída do teste.
+ */
+@Tag("load")
+class InvokerLoadTest {
+
+    private static final int CALLS = Integer.getInteger("load.calls", 2_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 50);
+    private static final int MEDIAN_LATENCY_MS = Integer.getInteger("load.median-latency-ms", 20);
+    private static final double LATENCY_SIGMA = Double.parseDouble(System.getProperty("load.latency-sigma", "0.5"));
+    private static final double ERROR_RATE = Double.parseDouble(System.getProperty("load.error-rate", "0.01"));
+    private static final int PAYLOAD_SIZE = Integer.getInteger("load.payload-size", 4_096);
+
+    private static SoapStandInServer server;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = new SoapStandInServer(
+            LatencyDistribution.logNormal(Duration.ofMillis(MEDIAN_LATENCY_MS), LATENCY_SIGMA), ERROR_RATE,
+            PAYLOAD_SIZE);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void invokerUnderConcurrentLoad() throws InterruptedException, MalformedURLException {
+        final StandInInvoker invoker = new StandInInvoker(server, CONCURRENCY);
+        final byte[] request = "<soap:Envelope/>".getBytes();
+
+        final LoadReport report = new LoadDriver(CALLS, CONCURRENCY, CALLS / 10)
+            .run("StandInInvoker", () -> invoker.run(request).get());
+        System.out.println(report);
+
+        assertThat(report.getCalls()).isEqualTo(CALLS);
+        assertThat(report.getErrorRate()).isLessThanOrEqualTo(ERROR_RATE * 3 + 0.01);
+        assertThat(report.getPercentileMillis(99)).isGreaterThanOrEqualTo(report.getPercentileMillis(50));
+    }
+
+    /**
+     * Invoker que faz o POST do envelope SOAP no servidor local, com {@link HttpURLConnection} como o transporte
+     * padrão dos clientes JAX-WS. O bulkhead acompanha a concorrência do teste e o circuit breaker fica desligado, para
+     * que os erros simulados não interrompam a carga.
+     */
+    static final class StandInInvoker extends AbstractInvoker<byte[], byte[], Void> {
+
+        private final URL url;
+        private final int concurrency;
+
+        StandInInvoker(final SoapStandInServer server, final int concurrency) throws MalformedURLException {
+            this.url = server.getUri().toURL();
+            this.concurrency = concurrency;
+        }
+
+        @Override
+        protected byte[] invoke(final byte[] stubin, final Optional<Void> header) throws Exception {
+            final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "text/xml; charset=UTF-8");
+            connection.setRequestProperty("SOAPAction", "\"\"");
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(stubin);
+            }
+
+            final int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                try (InputStream error = connection.getErrorStream()) {
+                    if (error != null) {
+                        error.readAllBytes();
+                    }
+                }
+                throw new IOException(String.format("SOAP Fault, status %d", status));
+            }
+            try (InputStream in = connection.getInputStream()) {
+                return in.readAllBytes();
+            }
+        }
+
+        @Override
+        public RuntimeException handleException(final Exception e) {
+            return falhaInesperada(e);
+        }
+
+        @Override
+        protected String operationName(final byte[] stubin) {
+            return "standIn";
+        }
+
+        @Override
+        protected int maxConcurrentCalls() {
+            return concurrency;
+        }
+
+        @Override
+        protected int circuitBreakerFailureThreshold() {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+}
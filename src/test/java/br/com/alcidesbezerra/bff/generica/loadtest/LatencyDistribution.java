@@ -0,0 +1,47 @@
+package br.com.alcidesbezerra.bff.generica.loadtest;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Distribuição de latência simulada pelo {@link SoapStandInServer}.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Próxima latência, em nanos.
+     */
+    long nextNanos(Random random);
+
+    /**
+     * Latência sempre igual.
+     */
+    static LatencyDistribution fixed(final Duration latency) {
+        final long nanos = latency.toNanos();
+        return random -> nanos;
+    }
+
+    /**
+     * Latência uniforme entre {@code min} e {@code max}.
+     */
+    static LatencyDistribution uniform(final Duration min, final Duration max) {
+        final long minNanos = min.toNanos();
+        final long range = max.toNanos() - minNanos;
+        return random -> minNanos + (long) (random.nextDouble() * range);
+    }
+
+    /**
+     * Latência log-normal, que reproduz a cauda longa de um backend real: a maior parte das chamadas fica perto da
+     * mediana e algumas são bem mais lentas.
+     *
+     * @param median Mediana da latência
+     * @param sigma Desvio padrão do logaritmo. Valores maiores geram caudas mais longas; {@code 0.5} é um bom ponto de
+     * partida
+     */
+    static LatencyDistribution logNormal(final Duration median, final double sigma) {
+        final double mu = Math.log(median.toNanos());
+        return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+}
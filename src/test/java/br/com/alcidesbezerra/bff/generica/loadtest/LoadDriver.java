@@ -0,0 +1,71 @@
+package br.com.alcidesbezerra.bff.generica.loadtest;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de carga: faz {@code calls} chamadas com até {@code concurrency} chamadas simultâneas e mede a latência de
+ * cada uma. Uma chamada que lança exception conta como erro.
+ */
+public final class LoadDriver {
+
+    private final int calls;
+    private final int concurrency;
+    private final int warmupCalls;
+
+    /**
+     * @param calls Quantidade de chamadas medidas
+     * @param concurrency Quantidade de chamadas simultâneas
+     * @param warmupCalls Quantidade de chamadas de aquecimento, feitas antes e não medidas
+     */
+    public LoadDriver(final int calls, final int concurrency, final int warmupCalls) {
+        this.calls = calls;
+        this.concurrency = concurrency;
+        this.warmupCalls = warmupCalls;
+    }
+
+    /**
+     * Executa a carga.
+     *
+     * @param name Nome do cenário, usado no relatório
+     * @param call Chamada a ser medida, por exemplo {@code () -> invoker.run(stub).get()}
+     */
+    public LoadReport run(final String name, final Callable<?> call) throws InterruptedException {
+        execute(warmupCalls, call, new long[warmupCalls], new AtomicInteger());
+
+        final long[] latencies = new long[calls];
+        final AtomicInteger errors = new AtomicInteger();
+        final long start = System.nanoTime();
+        execute(calls, call, latencies, errors);
+        return new LoadReport(name, concurrency, latencies, errors.get(), System.nanoTime() - start);
+    }
+
+    private void execute(final int total, final Callable<?> call, final long[] latencies, final AtomicInteger errors)
+        throws InterruptedException {
+        final AtomicLong next = new AtomicLong();
+        final ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                for (int index = (int) next.getAndIncrement(); index < total; index = (int) next.getAndIncrement()) {
+                    final long start = System.nanoTime();
+                    try {
+                        call.call();
+                    } catch (final Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies[index] = System.nanoTime() - start;
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+            throw new IllegalStateException("Carga não terminou em 10 minutos");
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package br.com.alcidesbezerra.bff.generica.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resultado de uma execução do {@link LoadDriver}: vazão, taxa de erro e percentis de latência.
+ */
+public final class LoadReport {
+
+    private final String name;
+    private final int concurrency;
+    private final long[] sortedLatencies;
+    private final int errors;
+    private final long elapsedNanos;
+
+    LoadReport(final String name, final int concurrency, final long[] latencies, final int errors,
+        final long elapsedNanos) {
+        this.name = name;
+        this.concurrency = concurrency;
+        this.sortedLatencies = latencies.clone();
+        Arrays.sort(this.sortedLatencies);
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getCalls() {
+        return sortedLatencies.length;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    public double getErrorRate() {
+        return sortedLatencies.length == 0 ? 0 : (double) errors / sortedLatencies.length;
+    }
+
+    /**
+     * Chamadas por segundo.
+     */
+    public double getThroughput() {
+        return sortedLatencies.length / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Percentil da latência, em milissegundos, pelo método nearest-rank.
+     *
+     * @param percentile Percentil entre 0 e 100
+     */
+    public double getPercentileMillis(final double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        final int rank = (int) Math.ceil(percentile / 100 * sortedLatencies.length);
+        return toMillis(sortedLatencies[Math.max(0, Math.min(rank, sortedLatencies.length) - 1)]);
+    }
+
+    public double getMaxMillis() {
+        return sortedLatencies.length == 0 ? 0 : toMillis(sortedLatencies[sortedLatencies.length - 1]);
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: calls=%d concurrency=%d errors=%d (%.2f%%) throughput=%.1f/s "
+            + "p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms", name, getCalls(), concurrency, errors,
+            getErrorRate() * 100, getThroughput(), getPercentileMillis(50), getPercentileMillis(90),
+            getPercentileMillis(99), getPercentileMillis(99.9), getMaxMillis());
+    }
+
+}
@@ -0,0 +1,116 @@
+package br.com.alcidesbezerra.bff.generica.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Servidor HTTP local que simula um WebService SOAP, para testes de carga dos {@link
+ * br.com.alcidesbezerra.bff.generica.AbstractInvoker}s sem depender dos backends reais. Sobe em uma porta livre do
+ * loopback e responde a qualquer POST com:
+ *
+ * <ul>
+ * <li>um envelope SOAP com {@code payloadSize} bytes, após a latência sorteada na {@link LatencyDistribution};</li>
+ * <li>ou, na proporção indicada em {@code errorRate}, um SOAP Fault com status 500.</li>
+ * </ul>
+ */
+public final class SoapStandInServer implements AutoCloseable {
+
+    private static final byte[] ENVELOPE_START = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+        + "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\"><soap:Body><response><payload>")
+        .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ENVELOPE_END =
+        "</payload></response></soap:Body></soap:Envelope>".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FAULT = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+        + "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\"><soap:Body><soap:Fault>"
+        + "<faultcode>soap:Server</faultcode><faultstring>Falha simulada</faultstring>"
+        + "</soap:Fault></soap:Body></soap:Envelope>").getBytes(StandardCharsets.UTF_8);
+
+    static {
+        // Sem TCP_NODELAY, o Nagle somado ao delayed ACK do cliente adiciona ~40ms a cada response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final byte[] response;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * @param latency Distribuição da latência das respostas
+     * @param errorRate Proporção de respostas com SOAP Fault, entre 0 e 1
+     * @param payloadSize Tamanho aproximado, em bytes, do conteúdo do response
+     */
+    public SoapStandInServer(final LatencyDistribution latency, final double errorRate, final int payloadSize)
+        throws IOException {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.response = envelope(payloadSize);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "soap-stand-in");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    private static byte[] envelope(final int payloadSize) {
+        final byte[] envelope = Arrays.copyOf(ENVELOPE_START, ENVELOPE_START.length + payloadSize + ENVELOPE_END.length);
+        Arrays.fill(envelope, ENVELOPE_START.length, ENVELOPE_START.length + payloadSize, (byte) 'x');
+        System.arraycopy(ENVELOPE_END, 0, envelope, ENVELOPE_START.length + payloadSize, ENVELOPE_END.length);
+        return envelope;
+    }
+
+    /**
+     * Endereço do servidor.
+     */
+    public URI getUri() {
+        return URI.create(String.format("http://%s:%d/", server.getAddress().getHostString(),
+            server.getAddress().getPort()));
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+
+        final Random random = ThreadLocalRandom.current();
+        try {
+            TimeUnit.NANOSECONDS.sleep(latency.nextNanos(random));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        final boolean fault = random.nextDouble() < errorRate;
+        final byte[] body = fault ? FAULT : response;
+        exchange.getResponseHeaders().set("Content-Type", "text/xml; charset=UTF-8");
+        exchange.sendResponseHeaders(fault ? 500 : 200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
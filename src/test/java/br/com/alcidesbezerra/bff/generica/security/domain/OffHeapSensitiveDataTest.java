@@ -0,0 +1,202 @@
+package br.com.alcidesbezerra.bff.generica.security.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.alcidesbezerra.bff.generica.security.logging.SensitiveLogMode;
+import br.com.alcidesbezerra.bff.generica.security.logging.SensitiveLogging;
+
+class OffHeapSensitiveDataTest {
+
+    private static final String CPF = "011.184.383-96";
+
+    @Test
+    void offHeapBehavesLikeHeap() {
+        final Cpf heap = new Cpf(CPF, false);
+        final Cpf offHeap = new Cpf(CPF, false, OffHeapArena.shared());
+
+        assertThat(offHeap.isOffHeap()).isTrue();
+        assertThat(offHeap.get()).isEqualTo("01118438396").isNotSameAs(offHeap.get());
+        assertThat(offHeap).isEqualTo(heap).hasSameHashCodeAs(heap);
+        assertThat(heap).isEqualTo(offHeap);
+        assertThat(offHeap.mask()).isEqualTo(heap.mask());
+        assertThat(offHeap.hash()).isEqualTo(heap.hash());
+        assertThat(offHeap.isValid()).isTrue();
+    }
+
+    @Test
+    void releaseInvalidatesValueButKeepsDerivedValues() {
+        final Cpf cpf = new Cpf(CPF, false, OffHeapArena.shared());
+        final String hash = cpf.hash();
+
+        cpf.release();
+        cpf.release();
+
+        assertThat(cpf.hash()).isEqualTo(hash);
+        assertThat(cpf.toString()).contains(hash);
+        assertThatThrownBy(cpf::get).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void releasedValueStaysUsableInLogsAndHashSets() {
+        final Cpf cpf = new Cpf(CPF, false, OffHeapArena.shared());
+        final Set<Cpf> set = new HashSet<>();
+        set.add(cpf);
+
+        cpf.release();
+
+        assertThat(set).contains(cpf);
+        assertThat(cpf).isNotEqualTo(new Cpf(CPF, false));
+        assertThat(cpf.toString()).isEqualTo("Cpf[" + new Cpf(CPF, false).hash() + "]");
+        SensitiveLogging.setMode(SensitiveLogMode.MASK);
+        try {
+            assertThat(cpf.toString()).isEqualTo("Cpf[********396]");
+        } finally {
+            SensitiveLogging.setMode(SensitiveLogMode.HASH);
+        }
+
+        final Cpf closed;
+        try (OffHeapArena arena = OffHeapArena.open(1024)) {
+            closed = new Cpf(CPF, false, arena);
+        }
+        assertThat(closed.toString()).isEqualTo("Cpf[released]");
+        assertThat(closed.hashCode()).isEqualTo(new Cpf(CPF, false).hashCode());
+    }
+
+    @Test
+    void concurrentReleaseNeverExposesAnotherValue() throws Exception {
+        // slab de 1 KiB: 64 slots de 16 bytes, reaproveitados o tempo todo
+        final OffHeapArena arena = OffHeapArena.open(1024);
+        final AtomicInteger sequence = new AtomicInteger();
+        final AtomicReferenceArray<Entry> entries = new AtomicReferenceArray<>(8);
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, new Entry(arena, sequence.incrementAndGet()));
+        }
+
+        final LongAdder reads = new LongAdder();
+        final LongAdder mismatches = new LongAdder();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<?>[] workers = new Future<?>[4];
+            for (int w = 0; w < workers.length; w++) {
+                workers[w] = executor.submit(() -> {
+                    final ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int n = 0; n < 50_000; n++) {
+                        final int i = random.nextInt(entries.length());
+                        final Entry entry = entries.get(i);
+                        if (random.nextInt(3) > 0) {
+                            try {
+                                if (!entry.expected.equals(entry.text.materialize())
+                                    || !entry.text.contentEquals(entry.expected)) {
+                                    mismatches.increment();
+                                }
+                                reads.increment();
+                            } catch (final IllegalStateException released) {
+                                // liberado por outra thread: esperado
+                            }
+                        } else {
+                            entry.text.release();
+                            final Entry replacement = new Entry(arena, sequence.incrementAndGet());
+                            if (!entries.compareAndSet(i, entry, replacement)) {
+                                replacement.text.release();
+                            }
+                        }
+                    }
+                });
+            }
+            for (final Future<?> worker : workers) {
+                worker.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+            arena.close();
+        }
+
+        assertThat(reads.sum()).isPositive();
+        assertThat(mismatches.sum()).isZero();
+    }
+
+    @Test
+    void releasedSlotIsZeroedAndReused() {
+        final OffHeapArena arena = OffHeapArena.open(1024);
+        final OffHeapText text = OffHeapText.of(arena, "01118438396");
+        assertThat(arena.getUsedBytes()).isEqualTo(OffHeapArena.MIN_SLOT_SIZE);
+
+        text.release();
+        assertThat(arena.getUsedBytes()).isZero();
+
+        final long handle = arena.allocate(11);
+        final byte[] slot = new byte[OffHeapArena.MIN_SLOT_SIZE];
+        arena.read(handle, slot, slot.length);
+        assertThat(slot).containsOnly(0);
+        assertThat(arena.getReservedBytes()).isEqualTo(1024);
+    }
+
+    @Test
+    void closingScopedArenaZeroesAndInvalidatesItsValues() {
+        final Cpf cpf;
+        try (OffHeapArena arena = OffHeapArena.open(1024)) {
+            cpf = new Cpf(CPF, false, arena);
+            assertThat(cpf.get()).isEqualTo("01118438396");
+        }
+
+        assertThatThrownBy(cpf::get).isInstanceOf(IllegalStateException.class);
+        cpf.release();
+    }
+
+    @Test
+    void nonLatin1TextRoundTrips() {
+        final OffHeapText text = OffHeapText.of(OffHeapArena.open(1024), "São Paulo – €");
+
+        assertThat(text.materialize()).isEqualTo("São Paulo – €");
+        assertThat(text.contentHashCode()).isEqualTo("São Paulo – €".hashCode());
+        assertThat(text.contentEquals("São Paulo – €")).isTrue();
+    }
+
+    @Test
+    void serializationCopiesValueBackOffHeap() throws Exception {
+        final Cpf cpf = new Cpf(CPF, false, OffHeapArena.shared());
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(cpf);
+        }
+        final Cpf copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Cpf) in.readObject();
+        }
+
+        assertThat(copy.isOffHeap()).isTrue();
+        assertThat(copy).isEqualTo(cpf);
+        assertThat(copy.get()).isEqualTo(cpf.get());
+    }
+
+    private static final class Entry {
+
+        private final String expected;
+        private final OffHeapText text;
+
+        private Entry(final OffHeapArena arena, final int sequence) {
+            this.expected = String.format("%011d", sequence);
+            this.text = OffHeapText.of(arena, expected);
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+package br.com.alcidesbezerra.bff.generica.security.exception;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.alcidesbezerra.bff.generica.security.domain.ErrorType;
+import br.com.alcidesbezerra.bff.generica.security.domain.Message;
+
+/**
+ * Benchmark do custo de rejeitar uma requisição inválida: a validação falha a {@link #STACK_DEPTH} frames de
+ * profundidade, como dentro de filtros e controllers, a exception sobe até o handler e o body de erro é gerado.
+ *
+ * <ul>
+ * <li>{@code legacy}: réplica da exception anterior, com stack trace e {@code details} sempre criados, e body
+ * serializado a cada erro;</li>
+ * <li>{@code fullStack}: {@link ClientErrorException} com stack trace, detalhes lazy e body pré-renderizado;</li>
+ * <li>{@code stackless}: {@link ClientErrorException#stackless}, com detalhes lazy e body pré-renderizado.</li>
+ * </ul>
+ *
+ * Não é executado no {@code mvn test}. Para rodar:
+ *
+ * <pre>
+ * java -cp target/test-classes:&lt;classpath de teste&gt; br.com.alcidesbezerra.bff.generica.security.exception.ErrorPathBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private static final int STACK_DEPTH = 64;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ErrorBodyRenderer renderer = new ErrorBodyRenderer(objectMapper);
+
+    @Benchmark
+    public byte[] legacy() throws JsonProcessingException {
+        try {
+            validate(STACK_DEPTH, () -> new LegacyClientErrorException(ErrorType.VALIDATION,
+                Message.CPF_INVALIDO.getMessage()));
+            return null;
+        } catch (final LegacyClientErrorException e) {
+            final Map<String, Object> body = new LinkedHashMap<>();
+            body.put("type", e.getErrorType().name());
+            body.put("message", e.getMessage());
+            return objectMapper.writeValueAsBytes(body);
+        }
+    }
+
+    @Benchmark
+    public byte[] fullStack() {
+        try {
+            validate(STACK_DEPTH, () -> new ClientErrorException(ErrorType.VALIDATION, Message.CPF_INVALIDO));
+            return null;
+        } catch (final ClientErrorException e) {
+            return renderer.render(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] stackless() {
+        try {
+            validate(STACK_DEPTH, () -> ClientErrorException.stackless(ErrorType.VALIDATION, Message.CPF_INVALIDO));
+            return null;
+        } catch (final ClientErrorException e) {
+            return renderer.render(e);
+        }
+    }
+
+    private static void validate(final int depth, final java.util.function.Supplier<RuntimeException> error) {
+        if (depth == 0) {
+            throw error.get();
+        }
+        validate(depth - 1, error);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ErrorPathBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build()).run();
+    }
+
+    /**
+     * Réplica da {@code ClientErrorException} anterior, mantida apenas para comparação.
+     */
+    static final class LegacyClientErrorException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ErrorType errorType;
+        private final Map<String, String> details = new ConcurrentHashMap<>();
+
+        LegacyClientErrorException(final ErrorType errorType, final String msg) {
+            super(msg);
+            this.errorType = errorType;
+        }
+
+        ErrorType getErrorType() {
+            return errorType;
+        }
+
+        Map<String, String> getDetails() {
+            return details;
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package br.com.alcidesbezerra.bff.generica.security.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import br.com.alcidesbezerra.bff.generica.security.domain.Cpf;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.OutputStreamAppender;
+
+class SensitiveLoggingTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @AfterEach
+    void resetMode() {
+        SensitiveLogging.setMode(SensitiveLogMode.HASH);
+        context.stop();
+    }
+
+    @Test
+    void toStringFollowsConfiguredMode() {
+        final Cpf cpf = new Cpf("01118438396", false);
+
+        SensitiveLogging.setMode(SensitiveLogMode.MASK);
+        assertThat(cpf).hasToString("Cpf[********396]");
+
+        SensitiveLogging.setMode(SensitiveLogMode.HASH);
+        assertThat(cpf).hasToString("Cpf[" + cpf.hash() + "]");
+    }
+
+    @Test
+    void closingTheContextRestoresThePreviousMode() {
+        final SensitiveLogging logging = new SensitiveLogging(SensitiveLogMode.MASK);
+        assertThat(SensitiveLogging.getMode()).isEqualTo(SensitiveLogMode.MASK);
+
+        logging.destroy();
+
+        assertThat(SensitiveLogging.getMode()).isEqualTo(SensitiveLogMode.HASH);
+    }
+
+    @Test
+    void disabledLevelDoesNoDigestWork() {
+        final Cpf cpf = new Cpf("01118438396", false);
+        final Logger logger = logger(Level.INFO);
+
+        try (MockedStatic<DigestUtils> digest = mockStatic(DigestUtils.class, CALLS_REAL_METHODS)) {
+            logger.debug("CPF {}", cpf);
+            logger.debug("{}", SensitiveLogging.lazy(() -> String.format("Cliente com CPF %s", cpf)));
+
+            digest.verifyNoInteractions();
+        }
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEmpty();
+    }
+
+    @Test
+    void lazyMessageIsRenderedWhenTheEventIsWritten() {
+        final Cpf cpf = new Cpf("01118438396", false);
+        final Logger logger = logger(Level.INFO);
+
+        logger.info("{}", SensitiveLogging.lazy(() -> String.format("Cliente com CPF %s", cpf)));
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("Cliente com CPF Cpf[" + cpf.hash() + "]");
+    }
+
+    private Logger logger(final Level level) {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        context.start();
+
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg");
+        encoder.start();
+
+        final OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(output);
+        appender.start();
+
+        final Logger logger = context.getLogger(SensitiveLoggingTest.class);
+        logger.addAppender(appender);
+        logger.setLevel(level);
+        return logger;
+    }
+
+}
@@ -5,18 +5,21 @@ import java.net.URI;
 import java.util.*;
 
 /**
+ * Cópia da implementação anterior do {@link ResponseCompatibility}, com lookup via reflection a cada chamada. Mantida
+ * apenas como referência para o {@link ResponseCompatibilityBenchmark}.
+ *
  * Utilitário para converter Response entre javax <-> jakarta via reflection.
  *
  * - Os métodos retornam Object para evitar depêndencia de compile-time.
  * - Reconstrói status, entity, headers, location e cookies (quando possível).
  *
  * Uso:
- *   Object jakartaResp = ResponseCompatibility.convertToJakarta(javaxResponse);
- *   Object javaxResp = ResponseCompatibility.convertToJavax(jakartaResponse);
+ *   Object jakartaResp = ReflectiveResponseCompatibility.convertToJakarta(javaxResponse);
+ *   Object javaxResp = ReflectiveResponseCompatibility.convertToJavax(jakartaResponse);
  */
-public final class ResponseCompatibility {
+final class ReflectiveResponseCompatibility {
 
-    private ResponseCompatibility() {}
+    private ReflectiveResponseCompatibility() {}
 
     // ---------- Public API ----------
 
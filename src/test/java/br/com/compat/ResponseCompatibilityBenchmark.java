@@ -0,0 +1,74 @@
+package br.com.compat;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.NewCookie;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Benchmark da conversão de Response do {@link ResponseCompatibility}, com MethodHandles em cache por classe,
+ * comparada com a implementação anterior ({@link ReflectiveResponseCompatibility}), que faz os lookups via reflection a
+ * cada chamada. O Response de origem é um jakarta do Jersey; como a API é toda por Object, o caminho de extração e de
+ * construção é o mesmo de um javax.
+ *
+ * Não é executado no {@code mvn test}. Para rodar:
+ *
+ * <pre>
+ * java -cp target/test-classes:&lt;classpath de teste&gt; br.com.compat.ResponseCompatibilityBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCompatibilityBenchmark {
+
+    private Response response;
+
+    @Setup
+    public void setup() {
+        response = Response.ok("{\"id\":1}")
+            .type(MediaType.APPLICATION_JSON_TYPE)
+            .header("X-Correlation-Id", "0f8fad5b-d9cb-469f-a165-70867728950e")
+            .header("Cache-Control", "no-cache")
+            .cookie(new NewCookie.Builder("session").value("abc").build())
+            .location(URI.create("http://localhost/recurso/1"))
+            .build();
+    }
+
+    @Benchmark
+    public Object methodHandles() {
+        return ResponseCompatibility.convertToJakarta(response);
+    }
+
+    @Benchmark
+    public Object reflection() {
+        return ReflectiveResponseCompatibility.convertToJakarta(response);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(ResponseCompatibilityBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build()).run();
+    }
+
+}
@@ -0,0 +1,138 @@
+package br.com.compat;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+class ResponseCompatibilityTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @BeforeAll
+    static void warmUp() {
+        // resolve os MethodHandles e carrega as classes antes das medições de alocação
+        ResponseCompatibility.convertToJakarta(Response.ok(new byte[0]).header("X-Warm-Up", "1").build());
+        ResponseCompatibility.convertToJakarta(Response.ok(new LargeStream(1)).build());
+    }
+
+    @Test
+    void multiMegabyteStreamIsPassedThroughWithoutExtraHeap() {
+        final LargeStream stream = new LargeStream(64 * MB);
+        final Response response = Response.ok(stream, MediaType.APPLICATION_OCTET_STREAM_TYPE)
+            .header("Content-Length", 64 * MB)
+            .build();
+
+        final long before = allocatedBytes();
+        final Response converted = (Response) ResponseCompatibility.convertToJakarta(response);
+        final long allocated = allocatedBytes() - before;
+
+        assertThat(converted.getEntity()).isSameAs(stream);
+        assertThat(stream.read).isZero();
+        assertThat(allocated).isLessThan(MB);
+    }
+
+    @Test
+    void byteArrayIsPassedThroughWithoutCopy() {
+        final byte[] payload = new byte[16 * MB];
+        final Response response = Response.ok(payload).build();
+
+        final long before = allocatedBytes();
+        final Response converted = (Response) ResponseCompatibility.convertToJakarta(response);
+        final long allocated = allocatedBytes() - before;
+
+        assertThat(converted.getEntity()).isSameAs(payload);
+        assertThat(allocated).isLessThan(MB);
+    }
+
+    @Test
+    void headersAreCarriedOver() {
+        final Response response = Response.status(201)
+            .header("X-Multi", "a")
+            .header("X-Multi", "b")
+            .header("X-Single", 1)
+            .build();
+
+        final Response converted = (Response) ResponseCompatibility.convertToJakarta(response);
+
+        assertThat(converted.getStatus()).isEqualTo(201);
+        assertThat(converted.getHeaders().get("X-Multi")).isEqualTo(Arrays.asList("a", "b"));
+        assertThat(converted.getHeaders().get("X-Single")).containsExactly(1);
+    }
+
+    @Test
+    void javaxStreamingOutputIsAdaptedWithoutBeingWritten() throws Exception {
+        final AtomicInteger writes = new AtomicInteger();
+        final javax.ws.rs.core.StreamingOutput output = out -> {
+            writes.incrementAndGet();
+            out.write("conteúdo".getBytes(UTF_8));
+        };
+        final javax.ws.rs.core.Response response = mock(javax.ws.rs.core.Response.class);
+        when(response.getStatus()).thenReturn(200);
+        when(response.getEntity()).thenReturn(output);
+        when(response.getHeaders()).thenReturn(new javax.ws.rs.core.MultivaluedHashMap<>());
+
+        final Response converted = (Response) ResponseCompatibility.convertToJakarta(response);
+
+        assertThat(writes).hasValue(0);
+        assertThat(converted.getEntity()).isInstanceOf(StreamingOutput.class);
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ((StreamingOutput) converted.getEntity()).write(body);
+        assertThat(writes).hasValue(1);
+        assertThat(new String(body.toByteArray(), UTF_8)).isEqualTo("conteúdo");
+    }
+
+    @Test
+    void inboundResponseEntityIsTakenFromReadEntity() {
+        final LargeStream stream = new LargeStream(MB);
+        final Response inbound = mock(Response.class);
+        when(inbound.getStatus()).thenReturn(200);
+        // responses de entrada (client) não permitem getEntity()
+        when(inbound.getEntity()).thenThrow(new IllegalStateException("Entity input stream"));
+        when(inbound.readEntity(InputStream.class)).thenReturn(stream);
+        when(inbound.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+
+        final Response converted = (Response) ResponseCompatibility.convertToJakarta(inbound);
+
+        assertThat(converted.getEntity()).isSameAs(stream);
+        assertThat(stream.read).isZero();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Stream de tamanho arbitrário que não mantém o conteúdo em memória.
+     */
+    private static final class LargeStream extends InputStream {
+
+        private final long size;
+        private long read;
+
+        private LargeStream(final long size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            return read < size ? (int) (read++ & 0x7f) : -1;
+        }
+    }
+
+}